@@ -0,0 +1,182 @@
+package com.api_gateway.benchmark;
+
+import com.api_gateway.cache.VerifiedTokenCache;
+import com.api_gateway.config.GatewayRoutingProperties;
+import com.api_gateway.filter.JwtAuthenticationFilter;
+import com.api_gateway.routing.CompiledPathRules;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link JwtAuthenticationFilter} end to end against mock exchanges: the public-path shortcut, a valid
+ * token served from the verified-token cache, a valid token that must be verified, and the expired,
+ * malformed and missing-header rejections that render an {@code onError} body. The downstream chain records
+ * the mutated {@code X-User-*} headers, so header mutation is part of every successful path.
+ * <p>
+ * {@link #exchangeOnly} measures building the mock exchange alone; subtract it to get the filter's own cost.
+ * Run with {@code java -jar target/benchmarks.jar JwtAuthenticationFilterBenchmark -prof gc}, or through
+ * {@link #main}, which adds the GC profiler so allocation per operation is reported next to throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long";
+    private static final String PROTECTED_PATH = "/api/orders/42";
+    private static final String PUBLIC_PATH = "/api/restaurants/public/42/menus";
+
+    /**
+     * Larger than the small verified-token cache below, so rotating through them always misses.
+     */
+    private static final int UNCACHED_TOKENS = 1024;
+
+    private GatewayFilter cachedFilter;
+    private GatewayFilter uncachedFilter;
+    private GatewayFilterChain chain;
+
+    private String validHeader;
+    private String expiredHeader;
+    private String malformedHeader;
+    private String[] uncachedHeaders;
+    private int next;
+
+    private String forwardedUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cachedFilter = filter(10_000);
+        uncachedFilter = filter(16);
+        chain = exchange -> {
+            forwardedUserId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+            return Mono.empty();
+        };
+
+        long now = System.currentTimeMillis();
+        validHeader = bearer(token("42", now, now + TimeUnit.HOURS.toMillis(1)));
+        expiredHeader = bearer(token("42", now - TimeUnit.HOURS.toMillis(2), now - TimeUnit.HOURS.toMillis(1)));
+        malformedHeader = bearer("eyJhbGciOiJIUzI1NiJ9.not-a-payload.bad-signature");
+
+        uncachedHeaders = new String[UNCACHED_TOKENS];
+        for (int i = 0; i < UNCACHED_TOKENS; i++) {
+            uncachedHeaders[i] = bearer(token(Integer.toString(i), now, now + TimeUnit.HOURS.toMillis(1)));
+        }
+    }
+
+    @Benchmark
+    public ServerWebExchange exchangeOnly() {
+        return exchange(PROTECTED_PATH, validHeader);
+    }
+
+    @Benchmark
+    public String publicPath() {
+        run(cachedFilter, exchange(PUBLIC_PATH, null));
+        return forwardedUserId;
+    }
+
+    @Benchmark
+    public String validTokenCached() {
+        run(cachedFilter, exchange(PROTECTED_PATH, validHeader));
+        return forwardedUserId;
+    }
+
+    @Benchmark
+    public String validTokenVerified() {
+        String header = uncachedHeaders[next++ & (UNCACHED_TOKENS - 1)];
+        run(uncachedFilter, exchange(PROTECTED_PATH, header));
+        return forwardedUserId;
+    }
+
+    @Benchmark
+    public Object expiredToken() {
+        return run(cachedFilter, exchange(PROTECTED_PATH, expiredHeader));
+    }
+
+    @Benchmark
+    public Object malformedToken() {
+        return run(cachedFilter, exchange(PROTECTED_PATH, malformedHeader));
+    }
+
+    @Benchmark
+    public Object missingHeader() {
+        return run(cachedFilter, exchange(PROTECTED_PATH, null));
+    }
+
+    private Object run(GatewayFilter filter, MockServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse().getStatusCode();
+    }
+
+    private static MockServerWebExchange exchange(String path, String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static GatewayFilter filter(long cacheSize) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CompiledPathRules pathRules = new CompiledPathRules(new GatewayRoutingProperties(), event -> {
+        });
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+                new VerifiedTokenCache(cacheSize, meterRegistry), pathRules, meterRegistry);
+        ReflectionTestUtils.setField(filter, "jwtSecret", SECRET);
+        ReflectionTestUtils.invokeMethod(filter, "initVerifier");
+        return filter.apply(new JwtAuthenticationFilter.Config());
+    }
+
+    private static String token(String userId, long issuedAt, long expiresAt) {
+        return Jwts.builder()
+                .setSubject("user" + userId + "@bytebites.com")
+                .claim("userId", userId)
+                .claim("roles", "ROLE_CUSTOMER")
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.api_gateway.benchmark;
+
+import com.jwt_codec.Hs256Signer;
+import com.jwt_codec.Hs256Verifier;
+import com.jwt_codec.JwtClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signs and verifies ByteBites access tokens with jjwt, as auth-service and the gateway did before, and
+ * with the jwt-codec {@link Hs256Signer} and {@link Hs256Verifier} that replaced it. Tokens carry the same
+ * claims auth-service issues, and each side verifies tokens the other signed, so both parse identical input.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar JwtCodecBenchmark -prof gc}, or through {@link #main},
+ * which adds the GC profiler so allocation per operation is reported next to throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtCodecBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long";
+    private static final String USER_ID = UUID.randomUUID().toString();
+    private static final String EMAIL = "owner@bytebites.com";
+    private static final String ROLE = "ROLE_RESTAURANT_OWNER";
+
+    private SecretKey jjwtKey;
+    private JwtParser jjwtParser;
+    private Hs256Signer signer;
+    private Hs256Verifier verifier;
+
+    private String jjwtToken;
+    private String codecToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] key = SECRET.getBytes(StandardCharsets.UTF_8);
+        jjwtKey = Keys.hmacShaKeyFor(key);
+        jjwtParser = Jwts.parserBuilder().setSigningKey(jjwtKey).build();
+        signer = new Hs256Signer(key);
+        verifier = new Hs256Verifier(key);
+
+        jjwtToken = jjwtSign();
+        codecToken = codecSign();
+    }
+
+    @Benchmark
+    public String jjwtSign() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", USER_ID);
+        claims.put("email", EMAIL);
+        claims.put("roles", ROLE);
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(EMAIL)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TimeUnit.MINUTES.toMillis(15)))
+                .signWith(jjwtKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String codecSign() {
+        long now = System.currentTimeMillis() / 1000;
+        return signer.sign(new JwtClaims(EMAIL, USER_ID, EMAIL, ROLE, now, now + TimeUnit.MINUTES.toSeconds(15)));
+    }
+
+    @Benchmark
+    public String jjwtVerify() {
+        Claims claims = jjwtParser.parseClaimsJws(codecToken).getBody();
+        return claims.get("userId", String.class);
+    }
+
+    @Benchmark
+    public String codecVerify() {
+        return verifier.verify(jjwtToken).userId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
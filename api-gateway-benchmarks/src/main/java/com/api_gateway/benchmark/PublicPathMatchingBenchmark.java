@@ -0,0 +1,107 @@
+package com.api_gateway.benchmark;
+
+import com.api_gateway.config.GatewayRoutingProperties;
+import com.api_gateway.routing.PathPrefixTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled public-path trie with a {@code startsWith}/{@code equals} chain over the same rules.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar PublicPathMatchingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicPathMatchingBenchmark {
+
+    private static final String[] REQUEST_PATHS = {
+            "/api/restaurants/public/42/menus",
+            "/api/restaurants/42/menus/7",
+            "/auth/login",
+            "/auth/user/me",
+            "/actuator/health",
+            "/admin/users"
+    };
+
+    /**
+     * Number of rules beyond the defaults, to show how each approach scales.
+     */
+    @Param({"0", "100", "500"})
+    public int extraRules;
+
+    private String[] literals;
+    private boolean[] prefixRule;
+    private PathPrefixTrie<Boolean> trie;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> rules = new ArrayList<>();
+        for (int i = 0; i < extraRules; i++) {
+            rules.add(i % 2 == 0 ? "/api/partners/" + i + "/**" : "/static/page-" + i + ".html");
+        }
+        rules.addAll(new GatewayRoutingProperties().getPublicPaths());
+
+        literals = new String[rules.size()];
+        prefixRule = new boolean[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            String rule = rules.get(i);
+            prefixRule[i] = rule.endsWith(PathPrefixTrie.PREFIX_WILDCARD);
+            literals[i] = prefixRule[i] ? rule.substring(0, rule.length() - 2) : rule;
+        }
+
+        PathPrefixTrie.Builder<Boolean> builder = PathPrefixTrie.builder();
+        rules.forEach(rule -> builder.add(rule, Boolean.TRUE));
+        trie = builder.build();
+    }
+
+    @Benchmark
+    public void conditionalChain(Blackhole blackhole) {
+        for (String path : REQUEST_PATHS) {
+            blackhole.consume(chainMatches(path));
+        }
+    }
+
+    @Benchmark
+    public void compiledTrie(Blackhole blackhole) {
+        for (String path : REQUEST_PATHS) {
+            blackhole.consume(trie.matches(path));
+        }
+    }
+
+    private boolean chainMatches(String path) {
+        for (int i = 0; i < literals.length; i++) {
+            if (prefixRule[i] ? path.startsWith(literals[i]) : path.equals(literals[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PublicPathMatchingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package com.api_gateway.benchmark;
+
+import com.api_gateway.compression.ContentCoding;
+import com.api_gateway.compression.DeflaterPool;
+import com.api_gateway.compression.StreamingCompressor;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of streaming gzip/deflate over catalog-sized {@code ApiResponseDTO<Page<RestaurantResponseDTO>>}
+ * bodies, fed in 8 KB chunks through pooled Netty buffers as in the gateway. The {@code compressedBytes}
+ * counter reports the encoded size, so time per operation can be weighed against bytes saved.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ResponseCompressionBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Restaurants per page: a default page, a large page, and a menu-sized export.
+     */
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    @Param({"GZIP", "DEFLATE"})
+    public ContentCoding coding;
+
+    @Param({"1", "6"})
+    public int level;
+
+    private byte[] payload;
+    private NettyDataBufferFactory bufferFactory;
+    private DeflaterPool pool;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long originalBytes;
+        public long compressedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = catalogPage(pageSize);
+        bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        pool = new DeflaterPool(level, 4);
+    }
+
+    @Benchmark
+    public long compress(Sizes sizes) {
+        StreamingCompressor compressor = new StreamingCompressor(coding, pool, bufferFactory);
+        long compressed = 0;
+        for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, payload.length - offset);
+            compressed += drain(compressor.compress(bufferFactory.allocateBuffer(length).write(payload, offset, length)));
+        }
+        compressed += drain(compressor.finish());
+        compressor.close();
+
+        sizes.originalBytes = payload.length;
+        sizes.compressedBytes = compressed;
+        return compressed;
+    }
+
+    private static int drain(DataBuffer buffer) {
+        if (buffer == null) {
+            return 0;
+        }
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+
+    private static byte[] catalogPage(int restaurants) {
+        String[] types = {"ITALIAN", "RWANDAN", "FAST_FOOD", "INDIAN", "CHINESE"};
+        String[] streets = {"KG 7 Ave", "KN 3 Rd", "KK 15 Rd", "KG 541 St", "KN 82 St"};
+        StringBuilder json = new StringBuilder("{\"success\":true,\"message\":\"Restaurants retrieved successfully\",\"data\":{\"content\":[");
+        for (int i = 0; i < restaurants; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(1000 + i * 7)
+                    .append(",\"name\":\"").append(types[i % types.length].charAt(0)).append("-Kitchen ").append(i * 31 % 997)
+                    .append("\",\"type\":\"").append(types[i * 3 % types.length])
+                    .append("\",\"location\":\"").append(streets[i % streets.length]).append(", Kigali\"")
+                    .append(",\"ownerId\":\"").append(Integer.toHexString(0x5f00 + i * 13)).append("\"}");
+        }
+        json.append("],\"pageable\":{\"pageNumber\":0,\"pageSize\":").append(restaurants)
+                .append(",\"sort\":{\"empty\":true,\"sorted\":false,\"unsorted\":true},\"offset\":0,\"paged\":true,\"unpaged\":false}")
+                .append(",\"last\":false,\"totalElements\":4812,\"totalPages\":").append(4812 / restaurants + 1)
+                .append(",\"size\":").append(restaurants).append(",\"number\":0,")
+                .append("\"sort\":{\"empty\":true,\"sorted\":false,\"unsorted\":true},\"first\":true,\"numberOfElements\":")
+                .append(restaurants).append(",\"empty\":false},\"timestamp\":\"2025-07-01T12:00:00.000\",\"statusCode\":200}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseCompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
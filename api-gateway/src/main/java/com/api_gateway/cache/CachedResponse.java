@@ -0,0 +1,9 @@
+package com.api_gateway.cache;
+
+/**
+ * Buffered 200 response held by {@link ResponseCache}.
+ *
+ * @param etag strong validator, already quoted
+ */
+public record CachedResponse(byte[] body, String contentType, String etag) {
+}
@@ -0,0 +1,148 @@
+package com.api_gateway.cache;
+
+import com.api_gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Byte-bounded cache of public restaurant responses, keyed by normalized path and query.
+ * <p>
+ * Every invalidation bumps a generation counter. A response is only stored if no invalidation happened
+ * while it was being fetched, so a read racing a write cannot put the old body back into the cache.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    public static final String CACHE_NAME = "gateway.responses";
+
+    private static final String RESTAURANTS_PATH = "/api/restaurants";
+    private static final String PUBLIC_RESTAURANTS_PATH = "/api/restaurants/public";
+    private static final String PUBLIC_SEARCH_PATH = PUBLIC_RESTAURANTS_PATH + "/search";
+
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a response fetched while {@code fetchGeneration} was current. Returns the stored entry, or
+     * {@code null} if an invalidation made it stale.
+     */
+    public CachedResponse put(String key, byte[] body, String contentType, long fetchGeneration) {
+        CachedResponse response = new CachedResponse(body, contentType, etag(body));
+        if (generation.get() != fetchGeneration) {
+            return null;
+        }
+        cache.put(key, response);
+        if (generation.get() != fetchGeneration) {
+            cache.invalidate(key);
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Drops every cached response a write to {@code writePath} can change: the public listing and search pages,
+     * and for writes below {@code /api/restaurants/{id}} everything under {@code /api/restaurants/public/{id}}.
+     * Search results span restaurants and their menus, so they go on every write.
+     */
+    public void invalidateFor(String writePath) {
+        generation.incrementAndGet();
+
+        String restaurantId = restaurantId(writePath);
+        String restaurantPrefix = restaurantId != null ? PUBLIC_RESTAURANTS_PATH + "/" + restaurantId : null;
+
+        cache.asMap().keySet().removeIf(key -> {
+            String path = pathOf(key);
+            return path.equals(PUBLIC_RESTAURANTS_PATH)
+                    || path.equals(PUBLIC_SEARCH_PATH)
+                    || restaurantPrefix != null
+                    && (path.equals(restaurantPrefix) || path.startsWith(restaurantPrefix + "/"));
+        });
+        log.debug("Invalidated cached responses for write to {}", writePath);
+    }
+
+    /**
+     * Builds the cache key: the path without trailing slash, followed by the query parameters sorted by name.
+     * Empty parameters are dropped, so {@code ?size=20&page=0&sort=} and {@code ?page=0&size=20} share a key.
+     */
+    public static String key(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        MultiValueMap<String, String> params = request.getQueryParams();
+        if (params.isEmpty()) {
+            return path;
+        }
+
+        StringBuilder key = new StringBuilder(path);
+        char separator = '?';
+        for (Map.Entry<String, List<String>> param : new TreeMap<>(params).entrySet()) {
+            for (String value : param.getValue()) {
+                if (value == null || value.isEmpty()) {
+                    continue;
+                }
+                key.append(separator).append(param.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+    static String etag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String pathOf(String key) {
+        int query = key.indexOf('?');
+        return query < 0 ? key : key.substring(0, query);
+    }
+
+    private static String restaurantId(String writePath) {
+        if (!writePath.startsWith(RESTAURANTS_PATH + "/")) {
+            return null;
+        }
+        int start = RESTAURANTS_PATH.length() + 1;
+        int end = writePath.indexOf('/', start);
+        String segment = end < 0 ? writePath.substring(start) : writePath.substring(start, end);
+        return segment.isEmpty() || !segment.chars().allMatch(Character::isDigit) ? null : segment;
+    }
+}
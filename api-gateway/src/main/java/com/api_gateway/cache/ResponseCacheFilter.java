@@ -0,0 +1,172 @@
+package com.api_gateway.cache;
+
+import com.api_gateway.config.ResponseCacheProperties;
+import com.api_gateway.routing.PathPrefixTrie;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Serves public restaurant GETs from {@link ResponseCache} and answers matching {@code If-None-Match}
+ * requests with 304, in both cases without contacting the backend.
+ * <p>
+ * Runs ahead of {@link NettyWriteResponseFilter} so it can buffer and cache the upstream body on a miss.
+ * Successful writes under the invalidating paths drop the cached responses they affect.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheProperties properties;
+    private final PathPrefixTrie<Boolean> cacheablePaths;
+    private final PathPrefixTrie<Boolean> invalidatingPaths;
+
+    public ResponseCacheFilter(ResponseCache responseCache, ResponseCacheProperties properties) {
+        this.responseCache = responseCache;
+        this.properties = properties;
+        this.cacheablePaths = compile(properties.getCacheablePaths());
+        this.invalidatingPaths = compile(properties.getInvalidatingPaths());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        HttpMethod method = request.getMethod();
+
+        if (HttpMethod.GET.equals(method) && cacheablePaths.matches(path)) {
+            return serveCached(exchange, chain);
+        }
+        if (isWrite(method) && invalidatingPaths.matches(path)) {
+            return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status == null || status.is2xxSuccessful()) {
+                    responseCache.invalidateFor(path);
+                }
+            }));
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Void> serveCached(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String key = ResponseCache.key(exchange.getRequest());
+        CachedResponse cached = responseCache.get(key);
+        ServerHttpResponse response = exchange.getResponse();
+
+        if (cached != null) {
+            HttpHeaders headers = response.getHeaders();
+            headers.setETag(cached.etag());
+            headers.set(CACHE_STATUS_HEADER, "HIT");
+            if (notModified(exchange, cached.etag())) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+            response.setStatusCode(HttpStatus.OK);
+            if (cached.contentType() != null) {
+                headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+            }
+            headers.setContentLength(cached.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+        }
+
+        long generation = responseCache.generation();
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange, key, generation)).build());
+    }
+
+    private static boolean notModified(ServerWebExchange exchange, String etag) {
+        List<String> candidates = exchange.getRequest().getHeaders().getIfNoneMatch();
+        for (String candidate : candidates) {
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWrite(HttpMethod method) {
+        return HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+                || HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method);
+    }
+
+    private static PathPrefixTrie<Boolean> compile(List<String> patterns) {
+        PathPrefixTrie.Builder<Boolean> builder = PathPrefixTrie.builder();
+        patterns.forEach(pattern -> builder.add(pattern, Boolean.TRUE));
+        return builder.build();
+    }
+
+    /**
+     * Buffers a 200 upstream body, stores it, and tags the response with its ETag before it is committed.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final long generation;
+
+        private CachingResponse(ServerWebExchange exchange, String key, long generation) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.generation = generation;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long maxEntryBytes = properties.getMaxEntrySize().toBytes();
+            if (!HttpStatus.OK.equals(getStatusCode()) || getHeaders().getContentLength() > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                String contentType = getHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
+                CachedResponse stored = bytes.length <= maxEntryBytes
+                        ? responseCache.put(key, bytes, contentType, generation)
+                        : null;
+                String etag = stored != null ? stored.etag() : ResponseCache.etag(bytes);
+
+                getHeaders().setETag(etag);
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                if (notModified(exchange, etag)) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    return setComplete();
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+}
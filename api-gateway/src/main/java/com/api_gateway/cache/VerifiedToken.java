@@ -0,0 +1,13 @@
+package com.api_gateway.cache;
+
+/**
+ * Identity extracted from a JWT whose signature has already been checked.
+ *
+ * @param expiresAtMillis the token's {@code exp} claim in epoch millis
+ */
+public record VerifiedToken(String userId, String email, String roles, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,186 @@
+package com.api_gateway.coalescing;
+
+import com.api_gateway.cache.ResponseCache;
+import com.api_gateway.config.CoalescingProperties;
+import com.api_gateway.routing.PathPrefixTrie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses identical in-flight GETs into one upstream exchange (single-flight).
+ * <p>
+ * The first request for a key becomes the leader and goes upstream. Identical requests that arrive before
+ * the leader's response is written subscribe to it and receive a copy of the buffered status, headers and
+ * body; nothing blocks. If the leader fails, is cancelled or its body exceeds the sharing limit, waiting
+ * requests go upstream on their own. The key includes the {@code Authorization} header, so requests with
+ * different credentials are never merged.
+ * <p>
+ * Runs just inside {@code ResponseCacheFilter}, so only cache misses are coalesced.
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private static final SharedResponse NOT_SHAREABLE = new SharedResponse(null, null, null);
+
+    private final CoalescingProperties properties;
+    private final PathPrefixTrie<Boolean> paths;
+    private final ConcurrentHashMap<String, Mono<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsed;
+    private final Counter fallbacks;
+
+    public RequestCoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        PathPrefixTrie.Builder<Boolean> builder = PathPrefixTrie.builder();
+        properties.getPaths().forEach(path -> builder.add(path, Boolean.TRUE));
+        this.paths = builder.build();
+
+        this.collapsed = Counter.builder("gateway.coalescing.collapsed")
+                .description("Requests answered from another in-flight request's upstream response")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("gateway.coalescing.fallbacks")
+                .description("Waiting requests sent upstream because the shared response was unusable")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, ConcurrentHashMap::size)
+                .description("Distinct upstream GETs currently being shared")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!isEligible(exchange)) {
+            return chain.filter(exchange);
+        }
+        // Register in the in-flight map on subscription, not assembly, so an unsubscribed leader cannot leak
+        return Mono.defer(() -> coalesce(exchange, chain));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Void> coalesce(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String key = key(exchange.getRequest());
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Mono<SharedResponse> shared = sink.asMono();
+        Mono<SharedResponse> leader = inFlight.putIfAbsent(key, shared);
+
+        if (leader != null) {
+            return leader.flatMap(response -> {
+                if (response == NOT_SHAREABLE) {
+                    fallbacks.increment();
+                    return chain.filter(exchange);
+                }
+                collapsed.increment();
+                return write(exchange.getResponse(), response);
+            });
+        }
+
+        ServerHttpResponse sharing = new SharingResponse(exchange.getResponse(), key, shared, sink);
+        return chain.filter(exchange.mutate().response(sharing).build())
+                .doFinally(signal -> {
+                    // Covers errors, cancellation and responses completed without a body
+                    inFlight.remove(key, shared);
+                    sink.tryEmitValue(NOT_SHAREABLE);
+                });
+    }
+
+    private boolean isEligible(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || !HttpMethod.GET.equals(request.getMethod())
+                || !paths.matches(request.getPath().value())) {
+            return false;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null || properties.isEnabledFor(route.getId());
+    }
+
+    private static String key(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return ResponseCache.key(request)
+                + '\n' + headers.getFirst(HttpHeaders.AUTHORIZATION)
+                + '\n' + headers.getFirst(HttpHeaders.ACCEPT)
+                + '\n' + headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Buffers the leader's upstream body, hands a copy to waiting requests and then writes it as usual.
+     */
+    private final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Mono<SharedResponse> shared;
+        private final Sinks.One<SharedResponse> sink;
+
+        private SharingResponse(ServerHttpResponse delegate, String key, Mono<SharedResponse> shared,
+                                Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.key = key;
+            this.shared = shared;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long maxSharedBytes = properties.getMaxSharedSize().toBytes();
+            if (getHeaders().getContentLength() > maxSharedBytes) {
+                release(NOT_SHAREABLE);
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                if (bytes.length > maxSharedBytes) {
+                    release(NOT_SHAREABLE);
+                } else {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.putAll(getHeaders());
+                    release(new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), bytes));
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        private void release(SharedResponse response) {
+            // Later arrivals must start a fresh upstream call rather than reuse a finished one
+            inFlight.remove(key, shared);
+            sink.tryEmitValue(response);
+        }
+    }
+}
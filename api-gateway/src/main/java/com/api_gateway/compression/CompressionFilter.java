@@ -0,0 +1,151 @@
+package com.api_gateway.compression;
+
+import com.api_gateway.cache.ResponseCacheFilter;
+import com.api_gateway.config.CompressionProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compresses textual responses with gzip or deflate, as negotiated from {@code Accept-Encoding}.
+ * <p>
+ * Bodies are compressed as they stream through, never collected first. Single-buffer bodies and bodies with a
+ * {@code Content-Length} are left alone below the size threshold; streamed bodies of unknown length are always
+ * compressed. Runs outside {@link ResponseCacheFilter}, so cached and coalesced responses are stored
+ * uncompressed and encoded per client; compressed responses carry a weak ETag, which the cache still accepts
+ * in {@code If-None-Match}.
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER - 1;
+
+    private final CompressionProperties properties;
+    private final DeflaterPool deflaterPool;
+    private final MediaType[] mimeTypes;
+
+    public CompressionFilter(CompressionProperties properties) {
+        this.properties = properties;
+        this.deflaterPool = new DeflaterPool(properties.getLevel(), properties.getPoolSize());
+        this.mimeTypes = properties.getMimeTypes().stream().map(MediaType::parseMediaType).toArray(MediaType[]::new);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled() || HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        ContentCoding coding = ContentCoding.negotiate(exchange.getRequest().getHeaders());
+        if (coding == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new CompressingResponse(exchange.getResponse(), coding)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean isCompressible(ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        HttpStatusCode status = response.getStatusCode();
+        if (status != null && (status.value() == 204 || status.value() == 206 || status.value() == 304)) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey(HttpHeaders.CONTENT_RANGE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.contains("no-transform")) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides on the first write whether to compress, then encodes the body through a {@link StreamingCompressor}.
+     */
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ContentCoding coding;
+
+        private CompressingResponse(ServerHttpResponse delegate, ContentCoding coding) {
+            super(delegate);
+            this.coding = coding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCompressible(this)) {
+                return super.writeWith(body);
+            }
+            getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            long threshold = properties.getMinResponseSize().toBytes();
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength >= 0 && contentLength < threshold) {
+                return super.writeWith(body);
+            }
+            if (contentLength < 0 && body instanceof Mono) {
+                // A single buffer: its size is known as soon as it arrives
+                return Mono.from(body).flatMap(buffer -> buffer.readableByteCount() < threshold
+                        ? super.writeWith(Mono.just(buffer))
+                        : compressed(Mono.just(buffer)))
+                        .switchIfEmpty(Mono.defer(() -> super.writeWith(Mono.empty())));
+            }
+            return compressed(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Flushed streams (e.g. server-sent events) need each chunk delivered as-is
+            return super.writeAndFlushWith(body);
+        }
+
+        private Mono<Void> compressed(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            StreamingCompressor compressor = new StreamingCompressor(coding, deflaterPool, bufferFactory());
+            Flux<DataBuffer> encoded = Flux.<DataBuffer>from(body)
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        DataBuffer output = compressor.compress(buffer);
+                        if (output != null) {
+                            sink.next(output);
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(compressor::finish))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> compressor.close());
+            return super.writeWith(encoded);
+        }
+    }
+}
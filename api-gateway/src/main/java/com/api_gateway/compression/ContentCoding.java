@@ -0,0 +1,85 @@
+package com.api_gateway.compression;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Content codings the gateway can produce, in order of preference.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip", true),
+    DEFLATE("deflate", false);
+
+    private final String token;
+    private final boolean rawDeflate;
+
+    ContentCoding(String token, boolean rawDeflate) {
+        this.token = token;
+        this.rawDeflate = rawDeflate;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Whether the deflater writes headerless output (gzip adds its own header and trailer) rather than zlib.
+     */
+    boolean rawDeflate() {
+        return rawDeflate;
+    }
+
+    /**
+     * Picks the coding to use for the given {@code Accept-Encoding} values, or {@code null} for identity.
+     * Highest q-value wins; ties go to gzip. {@code *} stands for any coding not listed explicitly.
+     */
+    public static ContentCoding negotiate(List<String> acceptEncoding) {
+        double[] quality = new double[values().length];
+        double wildcard = -1;
+
+        for (String header : acceptEncoding) {
+            for (String entry : header.split(",")) {
+                String[] parts = entry.trim().split(";");
+                String name = parts[0].trim();
+                double q = 1.0;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            q = Double.parseDouble(param.substring(2));
+                        } catch (NumberFormatException e) {
+                            q = 0;
+                        }
+                    }
+                }
+                if (name.equals("*")) {
+                    wildcard = q;
+                    continue;
+                }
+                for (ContentCoding coding : values()) {
+                    if (coding.token.equalsIgnoreCase(name)) {
+                        quality[coding.ordinal()] = q > 0 ? q : -1;
+                    }
+                }
+            }
+        }
+
+        ContentCoding best = null;
+        double bestQuality = 0;
+        for (ContentCoding coding : values()) {
+            double q = quality[coding.ordinal()] == 0 && wildcard > 0 ? wildcard : quality[coding.ordinal()];
+            if (q > bestQuality) {
+                best = coding;
+                bestQuality = q;
+            }
+        }
+        return best;
+    }
+
+    public static ContentCoding negotiate(HttpHeaders requestHeaders) {
+        List<String> values = requestHeaders.get(HttpHeaders.ACCEPT_ENCODING);
+        return values == null ? null : negotiate(values);
+    }
+}
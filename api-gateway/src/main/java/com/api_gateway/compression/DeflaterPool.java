@@ -0,0 +1,37 @@
+package com.api_gateway.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Reuses {@link Deflater}s, whose native zlib state is expensive to allocate for every response.
+ * Deflaters that do not fit back into the pool are ended at once to free their native memory.
+ */
+public class DeflaterPool {
+
+    private final int level;
+    private final ArrayBlockingQueue<Deflater> raw;
+    private final ArrayBlockingQueue<Deflater> zlib;
+
+    public DeflaterPool(int level, int size) {
+        this.level = level;
+        this.raw = new ArrayBlockingQueue<>(Math.max(1, size));
+        this.zlib = new ArrayBlockingQueue<>(Math.max(1, size));
+    }
+
+    public Deflater acquire(ContentCoding coding) {
+        Deflater deflater = pool(coding).poll();
+        return deflater != null ? deflater : new Deflater(level, coding.rawDeflate());
+    }
+
+    public void release(ContentCoding coding, Deflater deflater) {
+        deflater.reset();
+        if (!pool(coding).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private ArrayBlockingQueue<Deflater> pool(ContentCoding coding) {
+        return coding.rawDeflate() ? raw : zlib;
+    }
+}
@@ -0,0 +1,128 @@
+package com.api_gateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses one response body buffer by buffer.
+ * <p>
+ * Input buffers are fed to the deflater straight from their backing memory and released as soon as they
+ * are consumed; output goes into buffers from the response's own (pooled) factory. Methods are synchronized
+ * because a cancellation may race the last {@code onNext}; the lock is never contended otherwise.
+ */
+public class StreamingCompressor {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int MIN_OUTPUT_SPACE = 64;
+
+    private final ContentCoding coding;
+    private final DeflaterPool pool;
+    private final DataBufferFactory bufferFactory;
+    private final CRC32 crc;
+
+    private Deflater deflater;
+    private boolean headerWritten;
+
+    public StreamingCompressor(ContentCoding coding, DeflaterPool pool, DataBufferFactory bufferFactory) {
+        this.coding = coding;
+        this.pool = pool;
+        this.bufferFactory = bufferFactory;
+        this.crc = coding == ContentCoding.GZIP ? new CRC32() : null;
+        this.deflater = pool.acquire(coding);
+    }
+
+    /**
+     * Consumes and releases {@code input}. Returns the compressed bytes produced so far, or {@code null} if the
+     * deflater is still holding them back.
+     */
+    public synchronized DataBuffer compress(DataBuffer input) {
+        try {
+            if (deflater == null) {
+                return null;
+            }
+            DataBuffer output = bufferFactory.allocateBuffer(Math.max(MIN_OUTPUT_SPACE * 4, input.readableByteCount() / 4));
+            writeHeader(output);
+            try (DataBuffer.ByteBufferIterator chunks = input.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    ByteBuffer chunk = chunks.next();
+                    if (crc != null) {
+                        crc.update(chunk.duplicate());
+                    }
+                    deflater.setInput(chunk);
+                    while (!deflater.needsInput()) {
+                        deflate(output, Deflater.NO_FLUSH);
+                    }
+                }
+            }
+            if (output.readableByteCount() == 0) {
+                DataBufferUtils.release(output);
+                return null;
+            }
+            return output;
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    /**
+     * Flushes what the deflater still holds and, for gzip, appends the trailer.
+     */
+    public synchronized DataBuffer finish() {
+        DataBuffer output = bufferFactory.allocateBuffer(MIN_OUTPUT_SPACE * 4);
+        if (deflater == null) {
+            return output;
+        }
+        writeHeader(output);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(output, Deflater.NO_FLUSH);
+        }
+        if (crc != null) {
+            output.ensureWritable(GZIP_TRAILER_SIZE);
+            writeIntLittleEndian(output, (int) crc.getValue());
+            writeIntLittleEndian(output, (int) deflater.getBytesRead());
+        }
+        return output;
+    }
+
+    /**
+     * Returns the deflater to the pool. Safe to call more than once.
+     */
+    public synchronized void close() {
+        if (deflater != null) {
+            pool.release(coding, deflater);
+            deflater = null;
+        }
+    }
+
+    private void writeHeader(DataBuffer output) {
+        if (crc != null && !headerWritten) {
+            output.write(GZIP_HEADER);
+            headerWritten = true;
+        }
+    }
+
+    private void deflate(DataBuffer output, int flush) {
+        if (output.writableByteCount() < MIN_OUTPUT_SPACE) {
+            output.ensureWritable(Math.max(MIN_OUTPUT_SPACE, output.capacity()));
+        }
+        int written;
+        try (DataBuffer.ByteBufferIterator targets = output.writableByteBuffers()) {
+            written = deflater.deflate(targets.next(), flush);
+        }
+        output.writePosition(output.writePosition() + written);
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write((byte) value);
+        output.write((byte) (value >>> 8));
+        output.write((byte) (value >>> 16));
+        output.write((byte) (value >>> 24));
+    }
+}
@@ -0,0 +1,39 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request coalescing settings under {@code gateway.coalescing.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * GET paths eligible for coalescing.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/api/restaurants/public**"));
+
+    /**
+     * Per-route switches keyed by route id. Routes not listed are enabled.
+     */
+    private Map<String, Boolean> routes = new HashMap<>();
+
+    /**
+     * Responses larger than this are not shared; waiting requests go upstream themselves instead.
+     */
+    private DataSize maxSharedSize = DataSize.ofKilobytes(512);
+
+    public boolean isEnabledFor(String routeId) {
+        return routes.getOrDefault(routeId, Boolean.TRUE);
+    }
+}
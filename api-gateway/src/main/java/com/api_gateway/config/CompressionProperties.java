@@ -0,0 +1,40 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response compression settings under {@code gateway.compression.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Bodies with a known length below this are sent uncompressed.
+     */
+    private DataSize minResponseSize = DataSize.ofBytes(1024);
+
+    /**
+     * Deflate level from 1 (fastest) to 9 (smallest).
+     */
+    private int level = 6;
+
+    /**
+     * Content types eligible for compression. A trailing {@code *} matches any subtype prefix.
+     */
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json", "application/problem+json", "application/javascript",
+            "application/xml", "text/*"));
+
+    /**
+     * Idle deflaters kept per coding for reuse.
+     */
+    private int poolSize = 64;
+}
@@ -0,0 +1,41 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Adaptive per-route concurrency limit settings under {@code gateway.concurrency-limit.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+    private int minLimit = 5;
+    private int maxLimit = 1000;
+
+    /**
+     * How far the recent RTT may rise above the long-term RTT before the limit starts shrinking.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of each new estimate when moving the limit, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Number of windows averaged into the long-term RTT.
+     */
+    private int longWindow = 600;
+
+    /**
+     * A window closes, and the limit is recomputed, once it is this old and holds enough samples.
+     */
+    private Duration window = Duration.ofMillis(500);
+    private int minWindowSamples = 10;
+}
@@ -1,17 +1,36 @@
 package com.api_gateway.config;
 
+import com.api_gateway.cache.VerifiedTokenCache;
 import com.api_gateway.filter.JwtAuthenticationFilter;
+import com.api_gateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import com.api_gateway.routing.CompiledPathRules;
+import com.api_gateway.routing.ConfiguredRouteLocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties({
+        GatewayRoutingProperties.class,
+        RateLimitProperties.class,
+        ResponseCacheProperties.class,
+        CoalescingProperties.class,
+        ConcurrencyLimitProperties.class,
+        CompressionProperties.class,
+        LatencyAwareBalancingProperties.class
+})
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
 public class GatewayConfig {
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter();
+    public JwtAuthenticationFilter jwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                                           CompiledPathRules pathRules,
+                                                           MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(verifiedTokenCache, pathRules, meterRegistry);
     }
 
     @Bean
@@ -22,4 +41,10 @@ public class GatewayConfig {
                         .uri("forward:/fallback-handler"))
                 .build();
     }
+
+    @Bean
+    public RouteLocator configuredRouteLocator(CompiledPathRules pathRules,
+                                               JwtAuthenticationFilter jwtAuthenticationFilter) {
+        return new ConfiguredRouteLocator(pathRules, jwtAuthenticationFilter);
+    }
 }
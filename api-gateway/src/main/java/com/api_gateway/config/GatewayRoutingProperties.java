@@ -0,0 +1,55 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Public paths and routes served by config-server under {@code gateway.routing.*}.
+ * <p>
+ * Patterns ending in {@code **} are prefix matches, anything else must match the whole path.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.routing")
+public class GatewayRoutingProperties {
+
+    /**
+     * Paths that bypass JWT authentication.
+     */
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            // Auth service public endpoints
+            "/auth/login**",
+            "/auth/register**",
+            "/auth/refresh**",
+            "/auth/logout**",
+
+            // OAuth2 endpoints
+            "/oauth2/**",
+            "/login/oauth2/**",
+            "/login.html",
+
+            // Restaurant public endpoints
+            "/api/restaurants/public**",
+
+            // Health check endpoints
+            "/actuator/health**",
+
+            // Fallback endpoint
+            "/fallback"
+    ));
+
+    /**
+     * Routes matched through the compiled path trie, in addition to the fallback route.
+     */
+    private List<RouteRule> routes = new ArrayList<>();
+
+    @Data
+    public static class RouteRule {
+        private String id;
+        private List<String> paths = new ArrayList<>();
+        private String uri;
+        private int order;
+    }
+}
@@ -0,0 +1,42 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Latency-aware load balancing settings under {@code gateway.load-balancer.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LatencyAwareBalancingProperties {
+
+    /**
+     * When false, services fall back to Spring Cloud LoadBalancer's round-robin.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Time constant of the latency average; older samples lose weight at this rate, and an instance without
+     * new samples drifts back toward {@link #defaultLatency} at it.
+     */
+    private Duration decay = Duration.ofSeconds(10);
+
+    /**
+     * Newly seen instances ramp up from {@link #slowStartMinWeight} to full weight over this window.
+     */
+    private Duration slowStart = Duration.ofSeconds(30);
+    private double slowStartMinWeight = 0.1;
+
+    /**
+     * Latency assumed for an instance before it has been measured, if no peer has been measured either, and
+     * the value an unsampled instance's average decays toward.
+     */
+    private Duration defaultLatency = Duration.ofMillis(50);
+
+    /**
+     * Latency recorded for a failed request, so erroring instances fall out of favour.
+     */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+}
@@ -0,0 +1,77 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket limits enforced by the gateway under {@code gateway.rate-limit.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties implements InitializingBean {
+
+    private boolean enabled = true;
+
+    /**
+     * Limits applied to routes without an entry in {@link #routes}.
+     */
+    private Limit defaults = new Limit();
+
+    /**
+     * Per-route overrides keyed by route id.
+     */
+    private Map<String, Limit> routes = new HashMap<>();
+
+    /**
+     * Number of independently bounded bucket maps per route. Rounded up to a power of two.
+     */
+    private int stripes = 64;
+
+    private int maxBucketsPerStripe = 2048;
+
+    /**
+     * Buckets untouched for this long are full again and may be dropped.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    public Limit limitFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    // Runs after every bind, including rebinds on a config refresh
+    @Override
+    public void afterPropertiesSet() {
+        defaults.validate("gateway.rate-limit.defaults");
+        routes.forEach((routeId, limit) -> limit.validate("gateway.rate-limit.routes." + routeId));
+    }
+
+    @Data
+    public static class Limit {
+        /**
+         * Burst size of each caller's bucket, keyed by X-User-Id or client address.
+         */
+        private int userCapacity = 40;
+        private double userRefillPerSecond = 20;
+
+        /**
+         * Burst size of the bucket shared by every caller of the route. Zero disables it.
+         */
+        private int routeCapacity = 0;
+        private double routeRefillPerSecond = 0;
+
+        // A rate of zero would make the refill interval infinite and overflow the bucket arithmetic
+        void validate(String prefix) {
+            if (userCapacity <= 0 || !(userRefillPerSecond > 0)) {
+                throw new IllegalArgumentException(prefix + ": user-capacity and user-refill-per-second must be positive");
+            }
+            if (routeCapacity < 0 || (routeCapacity > 0 && !(routeRefillPerSecond > 0))) {
+                throw new IllegalArgumentException(prefix + ": route-refill-per-second must be positive when route-capacity is set");
+            }
+        }
+    }
+}
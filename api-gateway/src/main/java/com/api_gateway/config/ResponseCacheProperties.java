@@ -0,0 +1,41 @@
+package com.api_gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway response cache settings under {@code gateway.response-cache.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Anonymous GET paths whose 200 responses are cached.
+     */
+    private List<String> cacheablePaths = new ArrayList<>(List.of("/api/restaurants/public**"));
+
+    /**
+     * Paths whose successful POST/PUT/PATCH/DELETE requests invalidate cached restaurant responses.
+     */
+    private List<String> invalidatingPaths = new ArrayList<>(List.of("/api/restaurants**"));
+
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound on the summed size of all cached bodies.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Responses larger than this are passed through uncached.
+     */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+}
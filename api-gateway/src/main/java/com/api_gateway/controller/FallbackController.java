@@ -1,6 +1,8 @@
 package com.api_gateway.controller;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
@@ -12,6 +14,7 @@ import java.util.Map;
 public class FallbackController {
 
     @GetMapping("/fallback-handler")
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
     public Mono<Map<String, Object>> fallback() {
         Map<String, Object> response = new HashMap<>();
         response.put("error", "Service temporarily unavailable");
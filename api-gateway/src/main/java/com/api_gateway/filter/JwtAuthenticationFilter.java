@@ -1,14 +1,22 @@
 package com.api_gateway.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
+import com.api_gateway.cache.VerifiedToken;
+import com.api_gateway.cache.VerifiedTokenCache;
+import com.api_gateway.routing.CompiledPathRules;
+import com.jwt_codec.Hs256Verifier;
+import com.jwt_codec.InvalidJwtException;
+import com.jwt_codec.JwtClaims;
+import com.jwt_codec.JwtExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -17,17 +25,60 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
+    /**
+     * Exchange attribute holding the id of the user whose token was verified. Unlike the {@code X-User-Id}
+     * header it cannot be supplied by the client.
+     */
+    public static final String USER_ID_ATTR = JwtAuthenticationFilter.class.getName() + ".userId";
+
+    private static final String SERVICE_ROLE = "ROLE_SERVICE";
+    private static final List<String> USER_HEADERS = List.of("X-User-Id", "X-User-Email", "X-User-Roles");
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
-    public JwtAuthenticationFilter() {
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final CompiledPathRules pathRules;
+
+    private final Timer verificationTimer;
+    private final Counter missingHeader;
+    private final Counter expired;
+    private final Counter invalid;
+    private final Counter failed;
+
+    private Hs256Verifier jwtVerifier;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, CompiledPathRules pathRules,
+                                   MeterRegistry meterRegistry) {
         super(Config.class);
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.pathRules = pathRules;
+
+        this.verificationTimer = Timer.builder("gateway.jwt.verification")
+                .description("Signature check and claim parsing for tokens not found in the verified-token cache")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000L))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(meterRegistry);
+        this.missingHeader = rejections(meterRegistry, "missing_header");
+        this.expired = rejections(meterRegistry, "expired");
+        this.invalid = rejections(meterRegistry, "invalid");
+        this.failed = rejections(meterRegistry, "error");
+    }
+
+    @PostConstruct
+    void initVerifier() {
+        // The verifier keeps a Mac and scratch buffers per thread, so one instance serves every request
+        this.jwtVerifier = new Hs256Verifier(jwtSecret.getBytes());
     }
 
     @Override
@@ -39,34 +90,31 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
             log.debug("Processing request to path: {}", path);
 
             // Skip auth for public endpoints
-            if (isPublicEndpoint(path)) {
+            if (pathRules.isPublic(path)) {
                 log.debug("Public endpoint accessed: {}", path);
-                return chain.filter(exchange);
+                return chain.filter(withoutUserHeaders(exchange));
             }
 
             // Extract JWT from Authorization header
             String authHeader = request.getHeaders().getFirst("Authorization");
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 log.warn("Missing or invalid Authorization header for path: {}", path);
+                missingHeader.increment();
                 return onError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
             }
 
             String token = authHeader.substring(7);
 
             try {
-                // Validate and parse JWT
-                Claims claims = Jwts.parserBuilder()
-                        .setSigningKey(jwtSecret.getBytes())
-                        .build()
-                        .parseClaimsJws(token)
-                        .getBody();
-
-                // Extract user information
-                String userId = claims.get("userId", String.class);
-                String email = claims.getSubject();
-                String roles = claims.get("roles", String.class);
+                // Validate and parse JWT, skipped entirely for tokens verified earlier
+                VerifiedToken verified = verifiedTokenCache.get(token, this::verify);
+
+                String userId = verified.userId();
+                String email = verified.email();
+                String roles = verified.roles();
 
                 log.debug("JWT validated for user: {} with roles: {}", userId, roles);
+                exchange.getAttributes().put(USER_ID_ATTR, userId);
 
                 // Forward user info to downstream services
                 ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
@@ -77,38 +125,64 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
 
                 return chain.filter(exchange.mutate().request(modifiedRequest).build());
 
-            } catch (ExpiredJwtException e) {
+            } catch (JwtExpiredException e) {
                 log.error("JWT token expired for path: {}", path);
+                expired.increment();
                 return onError(exchange, "JWT token has expired", HttpStatus.UNAUTHORIZED);
-            } catch (JwtException e) {
+            } catch (InvalidJwtException e) {
                 log.error("Invalid JWT token for path: {}", path, e);
+                invalid.increment();
                 return onError(exchange, "Invalid JWT token", HttpStatus.UNAUTHORIZED);
             } catch (Exception e) {
                 log.error("Error processing JWT for path: {}", path, e);
+                failed.increment();
                 return onError(exchange, "Error processing authentication", HttpStatus.INTERNAL_SERVER_ERROR);
             }
         };
     }
 
-    private boolean isPublicEndpoint(String path) {
-        return
-                // Auth service public endpoints
-                path.startsWith("/auth/login") ||
-                        path.startsWith("/auth/register") ||
-
-                        // OAuth2 endpoints
-                        path.startsWith("/oauth2/") ||
-                        path.startsWith("/login/oauth2/") ||
-                        path.equals("/login.html") ||
-
-                        // Restaurant public endpoints
-                        path.startsWith("/api/restaurants/public") ||
+    private VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        JwtClaims claims;
+        try {
+            claims = jwtVerifier.verify(token);
+        } finally {
+            verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (claims.expiresAt() == 0) {
+            // auth-service always sets exp; a token without one would never leave the verified-token cache
+            throw new InvalidJwtException("Token has no expiration");
+        }
+        if (SERVICE_ROLE.equals(claims.roles())) {
+            // Service tokens are for calls between services inside the cluster, never from the edge
+            throw new InvalidJwtException("Service tokens are not accepted at the gateway");
+        }
+
+        // Extract user information
+        return new VerifiedToken(
+                claims.userId(),
+                claims.subject(),
+                claims.roles(),
+                claims.expiresAtMillis());
+    }
 
-                        // Health check endpoints
-                        path.startsWith("/actuator/health") ||
+    // Downstream services trust these headers, so only values set above may reach them
+    private static ServerWebExchange withoutUserHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (USER_HEADERS.stream().noneMatch(headers::containsKey)) {
+            return exchange;
+        }
+        ServerHttpRequest stripped = exchange.getRequest().mutate()
+                .headers(mutable -> USER_HEADERS.forEach(mutable::remove))
+                .build();
+        return exchange.mutate().request(stripped).build();
+    }
 
-                        // Fallback endpoint
-                        path.equals("/fallback");
+    private static Counter rejections(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("gateway.jwt.rejected")
+                .description("Requests rejected by JwtAuthenticationFilter, by cause")
+                .tag("cause", cause)
+                .register(meterRegistry);
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
@@ -0,0 +1,151 @@
+package com.api_gateway.limit;
+
+import com.api_gateway.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one downstream route that follows the route's round-trip time (gradient algorithm).
+ * <p>
+ * Completed requests feed RTT samples into a short window. When a window closes, its average is compared
+ * with a long-term average: if the recent RTT is rising the ratio drops below one and the limit shrinks,
+ * otherwise the limit grows by roughly its square root. Windows containing failed or timed-out requests
+ * cut the limit by 10%. The limit is not raised while less than half of it is in use.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+    private final AtomicLong windowStart;
+
+    // Guarded by windowLock
+    private double estimatedLimit;
+    private double longRttNanos;
+    private volatile long lastShortRttNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, long nowNanos) {
+        this.properties = properties;
+        this.windowNanos = properties.getWindow().toNanos();
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+        this.windowStart = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Reserves an in-flight slot. Every successful call must be paired with {@link #release}.
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees a slot and records how long the request held it.
+     *
+     * @param dropped true if the request failed in a way that signals overload (timeout, 5xx)
+     */
+    public void release(long rttNanos, boolean dropped, long nowNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        if (dropped) {
+            windowDrops.increment();
+        }
+
+        if (nowNanos - windowStart.get() >= windowNanos
+                && windowSamples.sum() >= properties.getMinWindowSamples()
+                && windowLock.tryLock()) {
+            try {
+                closeWindow(inFlightBefore, nowNanos);
+            } finally {
+                windowLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Frees a slot without recording a sample, e.g. when the client cancelled the request.
+     */
+    public void abandon() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getShortRttMillis() {
+        return lastShortRttNanos / 1_000_000.0;
+    }
+
+    public double getLongRttMillis() {
+        return longRttNanos / 1_000_000.0;
+    }
+
+    private void closeWindow(int inFlightNow, long nowNanos) {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        windowStart.set(nowNanos);
+        if (samples == 0) {
+            return;
+        }
+
+        double shortRtt = (double) rttSum / samples;
+        lastShortRttNanos = (long) shortRtt;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            double factor = 2.0 / (properties.getLongWindow() + 1);
+            longRttNanos = longRttNanos * (1 - factor) + shortRtt * factor;
+            // After a sustained drop in RTT, let the baseline catch up quickly instead of over-admitting
+            if (longRttNanos / shortRtt > 2) {
+                longRttNanos *= 0.95;
+            }
+        }
+
+        double newLimit;
+        if (drops > 0) {
+            newLimit = estimatedLimit * 0.9;
+        } else if (inFlightNow < estimatedLimit / 2) {
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRttNanos / shortRtt));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        }
+
+        double smoothing = properties.getSmoothing();
+        estimatedLimit = Math.max(properties.getMinLimit(),
+                Math.min(properties.getMaxLimit(), estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,37 @@
+package com.api_gateway.limit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/concurrencylimits}: the adaptive limit, load and rejection count of every route seen so far.
+ */
+@Component
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitEndpoint {
+
+    private final ConcurrencyLimitFilter filter;
+
+    public ConcurrencyLimitEndpoint(ConcurrencyLimitFilter filter) {
+        this.filter = filter;
+    }
+
+    @ReadOperation
+    public Map<String, RouteLimit> limits() {
+        Map<String, RouteLimit> limits = new TreeMap<>();
+        filter.limiters().forEach((routeId, limiter) -> limits.put(routeId, new RouteLimit(
+                limiter.getLimit(),
+                limiter.getInFlight(),
+                limiter.getRejected(),
+                limiter.getShortRttMillis(),
+                limiter.getLongRttMillis())));
+        return limits;
+    }
+
+    public record RouteLimit(int limit, int inFlight, long rejected, double recentRttMillis, double baselineRttMillis) {
+    }
+}
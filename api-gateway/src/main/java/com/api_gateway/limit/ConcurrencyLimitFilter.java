@@ -0,0 +1,127 @@
+package com.api_gateway.limit;
+
+import com.api_gateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps in-flight requests per downstream route with an {@link AdaptiveConcurrencyLimiter}.
+ * <p>
+ * Requests over the limit are not queued: they are forwarded straight to {@code FallbackController}, which
+ * answers 503. The slot is left on the exchange and freed by {@link ConcurrencySampleFilter} when the upstream
+ * response headers arrive, which also takes the RTT sample. A request that ends before then, cancelled or
+ * failed, frees its slot here. Runs after {@code RateLimitFilter}, so callers rejected there never take a slot.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = 150;
+
+    public static final String PERMIT_ATTR = ConcurrencyLimitFilter.class.getName() + ".permit";
+
+    static final String FALLBACK_PATH = "/fallback-handler";
+
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectProvider<DispatcherHandler> dispatcherHandler;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    // DispatcherHandler depends on the gateway handler mapping, which depends on the global filters
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                  ObjectProvider<DispatcherHandler> dispatcherHandler,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dispatcherHandler = dispatcherHandler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || isForward(route)) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        AdaptiveConcurrencyLimiter limiter = limiters.get(routeId);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(routeId, this::register);
+        }
+
+        if (!limiter.tryAcquire()) {
+            rejections.get(routeId).increment();
+            log.debug("Concurrency limit {} reached on route '{}'", limiter.getLimit(), routeId);
+            return shed(exchange);
+        }
+
+        ConcurrencyPermit permit = new ConcurrencyPermit(limiter, System.nanoTime());
+        exchange.getAttributes().put(PERMIT_ATTR, permit);
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // No-ops if the upstream response already arrived and was sampled
+                    if (signal == SignalType.ON_ERROR) {
+                        permit.sample(true, System.nanoTime());
+                    } else {
+                        // Cancelled by the client or answered without the upstream; nothing to learn from
+                        permit.abandon();
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    public Map<String, AdaptiveConcurrencyLimiter> limiters() {
+        return Collections.unmodifiableMap(limiters);
+    }
+
+    private AdaptiveConcurrencyLimiter register(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, System.nanoTime());
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive in-flight limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently in flight to the route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        rejections.put(routeId, Counter.builder("gateway.concurrency.rejected")
+                .description("Requests shed because the route was at its concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry));
+        return limiter;
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange) {
+        ServerWebExchange forwarded = exchange.mutate()
+                .request(request -> request.method(HttpMethod.GET).path(FALLBACK_PATH))
+                .build();
+        return dispatcherHandler.getObject().handle(forwarded);
+    }
+
+    private static boolean isForward(Route route) {
+        return "forward".equals(route.getUri().getScheme());
+    }
+}
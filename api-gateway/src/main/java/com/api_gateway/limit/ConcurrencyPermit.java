@@ -0,0 +1,38 @@
+package com.api_gateway.limit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A request's slot in an {@link AdaptiveConcurrencyLimiter}, held on the exchange from acquisition until the
+ * upstream response arrives. The slot is freed exactly once, whichever of {@link #sample} and
+ * {@link #abandon} runs first.
+ */
+final class ConcurrencyPermit {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long startNanos;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    ConcurrencyPermit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+        this.limiter = limiter;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Frees the slot and records the time since acquisition as an RTT sample.
+     */
+    void sample(boolean dropped, long nowNanos) {
+        if (released.compareAndSet(false, true)) {
+            limiter.release(nowNanos - startNanos, dropped, nowNanos);
+        }
+    }
+
+    /**
+     * Frees the slot without a sample.
+     */
+    void abandon() {
+        if (released.compareAndSet(false, true)) {
+            limiter.abandon();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.api_gateway.limit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Takes the RTT sample for the slot {@link ConcurrencyLimitFilter} left on the exchange as soon as the
+ * upstream response headers arrive. Runs just outside {@link NettyRoutingFilter}, so the sample excludes
+ * streaming the body to the client and a slow download cannot shrink the route's limit.
+ */
+@Component
+public class ConcurrencySampleFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    ConcurrencyPermit permit = exchange.getAttribute(ConcurrencyLimitFilter.PERMIT_ATTR);
+                    if (permit != null && exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR) != null) {
+                        permit.sample(isOverloaded(exchange), System.nanoTime());
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static boolean isOverloaded(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value()
+                || status.value() == HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+}
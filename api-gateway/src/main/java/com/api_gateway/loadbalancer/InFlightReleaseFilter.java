@@ -0,0 +1,37 @@
+package com.api_gateway.loadbalancer;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Releases the outstanding request {@link LatencyRecordingLifecycle} left on the exchange when the request
+ * ends without the load balancer completing it, as when the client disconnects and the chain is cancelled.
+ * Runs just outside {@link ReactiveLoadBalancerClientFilter}; a request that did complete was already
+ * released, and releasing twice is a no-op.
+ */
+@Component
+public class InFlightReleaseFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    Object inFlight = exchange.getAttributes().remove(LatencyRecordingLifecycle.IN_FLIGHT_ATTR);
+                    if (inFlight instanceof InstanceStats.InFlight pending) {
+                        pending.release();
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,122 @@
+package com.api_gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load and latency of one service instance, as seen by this gateway.
+ * <p>
+ * Latency is a peak-sensitive EWMA: a sample above the current average replaces it outright, lower samples
+ * are blended in with a weight that grows with the time since the previous sample. A slow replica is
+ * therefore avoided at once and let back in gradually. While an instance gets no samples, which is what
+ * happens once it is avoided, the average read by {@link #score} decays toward the neutral latency at the
+ * same rate, so a single slow spell does not keep it out of rotation for good.
+ */
+public class InstanceStats {
+
+    private final double neutralLatencyNanos;
+    private final long decayNanos;
+    private final long slowStartNanos;
+    private final double slowStartMinWeight;
+    private final long firstSeenNanos;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // Guarded by this
+    private double ewmaNanos;
+    private long lastSampleNanos;
+
+    InstanceStats(double initialLatencyNanos, double neutralLatencyNanos, long decayNanos, long slowStartNanos,
+                  double slowStartMinWeight, long nowNanos) {
+        this.ewmaNanos = initialLatencyNanos;
+        this.neutralLatencyNanos = neutralLatencyNanos;
+        this.decayNanos = decayNanos;
+        this.slowStartNanos = slowStartNanos;
+        this.slowStartMinWeight = slowStartMinWeight;
+        this.firstSeenNanos = nowNanos;
+        this.lastSampleNanos = nowNanos;
+    }
+
+    /**
+     * Counts a request as outstanding until the returned handle is completed or released.
+     */
+    public InFlight requestStarted() {
+        outstanding.incrementAndGet();
+        return new InFlight();
+    }
+
+    synchronized void recordLatency(long latencyNanos, long nowNanos) {
+        if (latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double elapsed = Math.max(0, nowNanos - lastSampleNanos);
+            double weight = Math.exp(-elapsed / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = nowNanos;
+    }
+
+    /**
+     * Expected cost of sending one more request here; lower is better.
+     */
+    public double score(long nowNanos) {
+        return ewmaNanos(nowNanos) * (outstanding.get() + 1) / weight(nowNanos);
+    }
+
+    /**
+     * Share of traffic the instance may take while warming up, from the minimum weight up to 1.
+     */
+    public double weight(long nowNanos) {
+        if (slowStartNanos <= 0) {
+            return 1.0;
+        }
+        double ramp = (double) (nowNanos - firstSeenNanos) / slowStartNanos;
+        return Math.max(slowStartMinWeight, Math.min(1.0, ramp));
+    }
+
+    /**
+     * The latency average, decayed toward the neutral latency for the time since the last sample.
+     */
+    public synchronized double ewmaNanos(long nowNanos) {
+        double idle = Math.max(0, nowNanos - lastSampleNanos);
+        return neutralLatencyNanos + (ewmaNanos - neutralLatencyNanos) * Math.exp(-idle / decayNanos);
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * One request counted in {@link #outstanding()}. It is released exactly once, however the request ends,
+     * so a cancelled call cannot leave the count raised.
+     */
+    public final class InFlight {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private InFlight() {
+        }
+
+        /**
+         * Records the request's latency and releases it, unless it was already released.
+         */
+        public void complete(long latencyNanos, long nowNanos) {
+            if (release()) {
+                recordLatency(latencyNanos, nowNanos);
+            }
+        }
+
+        /**
+         * Releases the request without a latency sample, as for a cancelled call.
+         *
+         * @return whether this call did the release
+         */
+        public boolean release() {
+            if (released.compareAndSet(false, true)) {
+                outstanding.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
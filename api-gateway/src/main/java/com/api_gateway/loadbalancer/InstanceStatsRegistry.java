@@ -0,0 +1,71 @@
+package com.api_gateway.loadbalancer;
+
+import com.api_gateway.config.LatencyAwareBalancingProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link InstanceStats} for every service instance the gateway has routed to, shared by the per-service
+ * load balancers and the lifecycle that feeds them.
+ */
+@Component
+public class InstanceStatsRegistry {
+
+    private final LatencyAwareBalancingProperties properties;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(LatencyAwareBalancingProperties properties) {
+        this.properties = properties;
+    }
+
+    public InstanceStats stats(ServiceInstance instance, long nowNanos) {
+        ConcurrentHashMap<String, InstanceStats> instances =
+                services.computeIfAbsent(instance.getServiceId(), id -> new ConcurrentHashMap<>());
+        String key = key(instance);
+        InstanceStats stats = instances.get(key);
+        if (stats == null) {
+            stats = instances.computeIfAbsent(key, k -> newStats(instances, nowNanos));
+        }
+        return stats;
+    }
+
+    /**
+     * Forgets instances of {@code serviceId} that are no longer registered.
+     */
+    public void retain(String serviceId, List<ServiceInstance> current) {
+        ConcurrentHashMap<String, InstanceStats> instances = services.get(serviceId);
+        if (instances == null) {
+            return;
+        }
+        Set<String> keys = new HashSet<>(current.size() * 2);
+        current.forEach(instance -> keys.add(key(instance)));
+        instances.keySet().retainAll(keys);
+    }
+
+    public Map<String, Map<String, InstanceStats>> snapshot() {
+        return Collections.unmodifiableMap(services);
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private InstanceStats newStats(Map<String, InstanceStats> peers, long nowNanos) {
+        // Seed with the peers' average so a new instance is neither flooded nor starved before its first sample
+        double initial = peers.values().stream()
+                .mapToDouble(peer -> peer.ewmaNanos(nowNanos))
+                .average()
+                .orElse(properties.getDefaultLatency().toNanos());
+        return new InstanceStats(initial, properties.getDefaultLatency().toNanos(), properties.getDecay().toNanos(), properties.getSlowStart().toNanos(),
+                properties.getSlowStartMinWeight(), nowNanos);
+    }
+}
@@ -0,0 +1,105 @@
+package com.api_gateway.loadbalancer;
+
+import com.api_gateway.config.LatencyAwareBalancingProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds {@link InstanceStatsRegistry} from the gateway's load-balanced calls: counts a request as outstanding
+ * once an instance is chosen and records its latency when it completes. Failed calls and 5xx responses are
+ * recorded as at least the configured failure penalty.
+ * <p>
+ * The load balancer does not call {@link #onComplete} for a request the client cancels, so the outstanding
+ * request is also kept on the exchange, where {@link InFlightReleaseFilter} releases it on any terminal signal.
+ */
+@Component
+public class LatencyRecordingLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    static final String IN_FLIGHT_ATTR = LatencyRecordingLifecycle.class.getName() + ".inFlight";
+
+    private final InstanceStatsRegistry registry;
+    private final LatencyAwareBalancingProperties properties;
+
+    public LatencyRecordingLifecycle(InstanceStatsRegistry registry, LatencyAwareBalancingProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!properties.isEnabled() || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(now);
+        }
+        InstanceStats.InFlight inFlight = registry.stats(lbResponse.getServer(), now).requestStarted();
+        Map<String, Object> attributes = attributes(request);
+        if (attributes != null) {
+            attributes.put(IN_FLIGHT_ATTR, inFlight);
+        } else {
+            // Nowhere to keep it until the request ends, so it must not count as outstanding
+            inFlight.release();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        Map<String, Object> attributes = attributes(completionContext.getLoadBalancerRequest());
+        if (attributes == null || !(attributes.remove(IN_FLIGHT_ATTR) instanceof InstanceStats.InFlight inFlight)) {
+            return;
+        }
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || !(completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed)
+                || timed.getRequestStartTime() == 0) {
+            inFlight.release();
+            return;
+        }
+
+        long now = System.nanoTime();
+        long latency = now - timed.getRequestStartTime();
+        if (isFailure(completionContext)) {
+            latency = Math.max(latency, properties.getFailurePenalty().toNanos());
+        }
+        inFlight.complete(latency, now);
+    }
+
+    // The gateway builds the request data over the exchange's own attribute map
+    private static Map<String, Object> attributes(Request<?> request) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            return context.getClientRequest().getAttributes();
+        }
+        return null;
+    }
+
+    private static boolean isFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        if (context.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        ResponseData response = context.getClientResponse();
+        return response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+    }
+}
@@ -0,0 +1,41 @@
+package com.api_gateway.loadbalancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/lbscores}: per-instance latency, load, warm-up weight and resulting score, by service.
+ */
+@Component
+@Endpoint(id = "lbscores")
+public class LoadBalancerScoresEndpoint {
+
+    private final InstanceStatsRegistry registry;
+
+    public LoadBalancerScoresEndpoint(InstanceStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, InstanceScore>> scores() {
+        long now = System.nanoTime();
+        Map<String, Map<String, InstanceScore>> scores = new TreeMap<>();
+        registry.snapshot().forEach((serviceId, instances) -> {
+            Map<String, InstanceScore> byInstance = new TreeMap<>();
+            instances.forEach((instanceId, stats) -> byInstance.put(instanceId, new InstanceScore(
+                    stats.ewmaNanos(now) / 1_000_000.0,
+                    stats.outstanding(),
+                    stats.weight(now),
+                    stats.score(now) / 1_000_000.0)));
+            scores.put(serviceId, byInstance);
+        });
+        return scores;
+    }
+
+    public record InstanceScore(double latencyMillis, int outstanding, double weight, double score) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.api_gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times each request through the whole gateway ({@code gateway.requests.latency}).
+ * <p>
+ * Registered as the first {@link WebFilter} rather than a gateway filter, so the sample starts before
+ * Spring Security and route predicate evaluation and covers authentication, rate limiting, caching and the
+ * downstream call. The route is read when the response completes; requests that matched none, such as 404s,
+ * are tagged {@code unknown}. Comparing it with {@code gateway.upstream.latency} from
+ * {@link UpstreamLatencyFilter} shows how much time the gateway itself adds.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLatencyFilter implements WebFilter {
+
+    private final RouteLatencyTimers timers;
+
+    public RequestLatencyFilter(MeterRegistry meterRegistry) {
+        this.timers = new RouteLatencyTimers("gateway.requests.latency",
+                "Time from receiving a request to completing its response, routing and downstream call included",
+                meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> timers.record(routeId(exchange), exchange.getResponse().getStatusCode(),
+                        System.nanoTime() - start));
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null && route.getId() != null ? route.getId() : RouteLatencyTimers.UNKNOWN_ROUTE;
+    }
+}
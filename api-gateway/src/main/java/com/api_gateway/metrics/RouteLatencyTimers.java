@@ -0,0 +1,71 @@
+package com.api_gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram timers for one metric name, tagged by route and HTTP status class.
+ * <p>
+ * Timers are looked up through a per-route array indexed by status class, so recording a sample does not
+ * build tags or touch the meter registry once a route has been seen.
+ */
+public class RouteLatencyTimers {
+
+    public static final String UNKNOWN_ROUTE = "unknown";
+
+    private static final String[] STATUS_CLASSES = {"UNKNOWN", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final String name;
+    private final String description;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public RouteLatencyTimers(String name, String description, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.description = description;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String routeId, HttpStatusCode status, long nanos) {
+        if (routeId == null) {
+            // Requests that matched no route, such as 404s, still need a tag value
+            routeId = UNKNOWN_ROUTE;
+        }
+        Timer[] byStatus = timers.get(routeId);
+        if (byStatus == null) {
+            byStatus = timers.computeIfAbsent(routeId, id -> new Timer[STATUS_CLASSES.length]);
+        }
+        int statusClass = statusClass(status);
+        Timer timer = byStatus[statusClass];
+        if (timer == null) {
+            // Registration is idempotent, so a racing thread simply gets the same timer back
+            timer = register(routeId, statusClass);
+            byStatus[statusClass] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(String routeId, int statusClass) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("route", routeId)
+                .tag("status", STATUS_CLASSES[statusClass])
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private static int statusClass(HttpStatusCode status) {
+        if (status == null) {
+            return 0;
+        }
+        int statusClass = status.value() / 100;
+        return statusClass >= 1 && statusClass < STATUS_CLASSES.length ? statusClass : 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.api_gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the downstream call alone ({@code gateway.upstream.latency}), from just before
+ * {@link NettyRoutingFilter} sends the request until the response headers arrive.
+ */
+@Component
+public class UpstreamLatencyFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+    private final RouteLatencyTimers timers;
+
+    public UpstreamLatencyFilter(MeterRegistry meterRegistry) {
+        this.timers = new RouteLatencyTimers("gateway.upstream.latency",
+                "Time from sending the request downstream to receiving the response headers", meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> timers.record(RequestLatencyFilter.routeId(exchange),
+                        exchange.getResponse().getStatusCode(), System.nanoTime() - start));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,123 @@
+package com.api_gateway.ratelimit;
+
+import com.api_gateway.config.RateLimitProperties;
+import com.api_gateway.filter.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control per caller and per route, answered in-process with 429 and {@code Retry-After}.
+ * <p>
+ * Callers are identified by the user id {@link JwtAuthenticationFilter} verified, or by client address on
+ * public routes. The id is read from an exchange attribute rather than the {@code X-User-Id} header, which a
+ * client can set to anything on a public route. The filter runs after the route filters so the attribute is
+ * already present.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = 100;
+
+    private static final String UNROUTED = "";
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    private final RateLimitProperties properties;
+    private final ConcurrentHashMap<String, RouteRateLimiter> limiters = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rejected = Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests answered with 429 by the gateway rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.buckets", limiters,
+                        map -> map.values().stream().mapToInt(RouteRateLimiter::bucketCount).sum())
+                .description("Per-caller token buckets currently held")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : UNROUTED;
+        long now = System.nanoTime();
+
+        RouteRateLimiter limiter = limiters.get(routeId);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(routeId,
+                    id -> new RouteRateLimiter(properties.limitFor(id), properties, now));
+        }
+
+        long waitNanos = limiter.tryAcquire(callerKey(exchange), now);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        rejected.increment();
+        log.debug("Rate limit exceeded on route '{}'", routeId);
+        return tooManyRequests(exchange, waitNanos);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        // Limits may have changed; buckets start full again under the new settings
+        limiters.clear();
+    }
+
+    // Anonymous callers are keyed by the InetAddress itself, so no address string is built per request
+    private static Object callerKey(ServerWebExchange exchange) {
+        String userId = exchange.getAttribute(JwtAuthenticationFilter.USER_ID_ATTR);
+        if (userId != null) {
+            return userId;
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress() : UNKNOWN_CLIENT;
+    }
+
+    private static Mono<Void> tooManyRequests(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().add(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().add("Content-Type", "application/json");
+
+        String body = String.format("{\"error\":\"%s\",\"status\":%d,\"timestamp\":\"%s\"}",
+                "Too many requests", HttpStatus.TOO_MANY_REQUESTS.value(), Instant.now());
+
+        DataBuffer buffer = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(buffer));
+    }
+}
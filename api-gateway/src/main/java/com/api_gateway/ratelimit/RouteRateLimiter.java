@@ -0,0 +1,59 @@
+package com.api_gateway.ratelimit;
+
+import com.api_gateway.config.RateLimitProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets for one route: one per caller, plus an optional bucket shared by all callers of the route.
+ */
+final class RouteRateLimiter {
+
+    private final StripedBucketStore userBuckets;
+    private final long userIntervalNanos;
+    private final long userToleranceNanos;
+
+    private final TokenBucket routeBucket;
+    private final long routeIntervalNanos;
+    private final long routeToleranceNanos;
+
+    RouteRateLimiter(RateLimitProperties.Limit limit, RateLimitProperties properties, long nowNanos) {
+        this.userBuckets = new StripedBucketStore(properties.getStripes(), properties.getMaxBucketsPerStripe(),
+                properties.getIdleTimeout().toNanos());
+        this.userIntervalNanos = intervalNanos(limit.getUserRefillPerSecond());
+        this.userToleranceNanos = userIntervalNanos * limit.getUserCapacity();
+
+        boolean routeLimited = limit.getRouteCapacity() > 0 && limit.getRouteRefillPerSecond() > 0;
+        this.routeBucket = routeLimited ? new TokenBucket(nowNanos) : null;
+        this.routeIntervalNanos = routeLimited ? intervalNanos(limit.getRouteRefillPerSecond()) : 0;
+        this.routeToleranceNanos = routeIntervalNanos * limit.getRouteCapacity();
+    }
+
+    /**
+     * Takes a token from the caller's bucket and then from the route's. A request the route bucket rejects
+     * gets its caller token back, so a saturated route does not also use up the caller's quota.
+     *
+     * @param callerKey the caller's user id, or its address for anonymous requests
+     * @return {@code 0} if the request is admitted, otherwise the nanos until it would be
+     */
+    long tryAcquire(Object callerKey, long nowNanos) {
+        TokenBucket userBucket = userBuckets.bucket(callerKey, nowNanos);
+        long wait = userBucket.tryAcquire(nowNanos, userIntervalNanos, userToleranceNanos);
+        if (wait > 0 || routeBucket == null) {
+            return wait;
+        }
+        long routeWait = routeBucket.tryAcquire(nowNanos, routeIntervalNanos, routeToleranceNanos);
+        if (routeWait > 0) {
+            userBucket.refund(userIntervalNanos);
+        }
+        return routeWait;
+    }
+
+    int bucketCount() {
+        return userBuckets.size();
+    }
+
+    private static long intervalNanos(double perSecond) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+    }
+}
@@ -0,0 +1,74 @@
+package com.api_gateway.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded map of per-caller buckets split into independently sized stripes.
+ * <p>
+ * Looking up an existing bucket is a plain {@link ConcurrentHashMap#get}. Only creating a bucket can
+ * trigger eviction, and only inside the stripe that is full. Idle buckets go first; if none are idle, the
+ * bucket with the oldest arrival time is dropped, since it is the one closest to full.
+ */
+final class StripedBucketStore {
+
+    private final ConcurrentHashMap<Object, TokenBucket>[] stripes;
+    private final int mask;
+    private final int maxPerStripe;
+    private final long idleNanos;
+
+    @SuppressWarnings("unchecked")
+    StripedBucketStore(int stripeCount, int maxPerStripe, long idleNanos) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.maxPerStripe = maxPerStripe;
+        this.idleNanos = idleNanos;
+    }
+
+    /**
+     * Returns the bucket for {@code key}, which only needs {@code equals} and {@code hashCode}.
+     */
+    TokenBucket bucket(Object key, long nowNanos) {
+        int hash = key.hashCode();
+        ConcurrentHashMap<Object, TokenBucket> stripe = stripes[(hash ^ (hash >>> 16)) & mask];
+        TokenBucket bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxPerStripe) {
+            evict(stripe, nowNanos);
+        }
+        return stripe.computeIfAbsent(key, k -> new TokenBucket(nowNanos));
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Object, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private void evict(ConcurrentHashMap<Object, TokenBucket> stripe, long nowNanos) {
+        stripe.values().removeIf(bucket -> bucket.isIdle(nowNanos, idleNanos));
+        if (stripe.size() < maxPerStripe) {
+            return;
+        }
+        Object oldestKey = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<Object, TokenBucket> entry : stripe.entrySet()) {
+            long tat = entry.getValue().theoreticalArrivalTime();
+            if (tat < oldest) {
+                oldest = tat;
+                oldestKey = entry.getKey();
+            }
+        }
+        if (oldestKey != null) {
+            stripe.remove(oldestKey);
+        }
+    }
+}
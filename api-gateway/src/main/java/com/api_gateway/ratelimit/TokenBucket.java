@@ -0,0 +1,69 @@
+package com.api_gateway.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free token bucket stored as a single theoretical arrival time (GCRA).
+ * <p>
+ * A bucket that refills one token every {@code interval} nanos and holds {@code capacity} tokens admits a
+ * request as long as the arrival time, pushed forward by one interval, stays within
+ * {@code capacity * interval} of now. The whole state is one {@code long} updated with CAS, so acquiring
+ * never locks or allocates.
+ */
+final class TokenBucket {
+
+    private static final VarHandle TAT;
+
+    static {
+        try {
+            TAT = MethodHandles.lookup().findVarHandle(TokenBucket.class, "tat", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // accessed through TAT
+    private volatile long tat;
+
+    TokenBucket(long nowNanos) {
+        this.tat = nowNanos;
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanos until one becomes available
+     */
+    long tryAcquire(long nowNanos, long intervalNanos, long toleranceNanos) {
+        for (;;) {
+            long current = (long) TAT.getVolatile(this);
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (TAT.compareAndSet(this, current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was rejected further on.
+     */
+    void refund(long intervalNanos) {
+        TAT.getAndAdd(this, -intervalNanos);
+    }
+
+    /**
+     * True once the bucket has been full for longer than {@code idleNanos}.
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrivalTime() > idleNanos;
+    }
+
+    long theoreticalArrivalTime() {
+        return (long) TAT.getVolatile(this);
+    }
+}
@@ -0,0 +1,94 @@
+package com.api_gateway.routing;
+
+import com.api_gateway.config.GatewayRoutingProperties;
+import com.api_gateway.config.GatewayRoutingProperties.RouteRule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * Holds the public-path and route tries compiled from {@link GatewayRoutingProperties}.
+ * <p>
+ * Both tries are rebuilt together when the configuration is refreshed and swapped in with a single
+ * volatile write, so a request always sees one consistent rule set.
+ */
+@Component
+@Slf4j
+public class CompiledPathRules {
+
+    private static final String MATCHED_ROUTE_ATTR = CompiledPathRules.class.getName() + ".matchedRoute";
+    private static final String NO_ROUTE = "";
+
+    private final GatewayRoutingProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Snapshot snapshot;
+
+    public CompiledPathRules(GatewayRoutingProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.snapshot = compile(properties);
+    }
+
+    public boolean isPublic(String path) {
+        return snapshot.publicPaths().matches(path);
+    }
+
+    public List<RouteRule> routes() {
+        return snapshot.routes();
+    }
+
+    /**
+     * Returns the id of the route whose path rule best matches the request, or an empty string if none does.
+     * The lookup runs once per exchange; every route predicate after the first reads the memoized result.
+     */
+    public String matchedRouteId(ServerWebExchange exchange) {
+        String matched = exchange.getAttribute(MATCHED_ROUTE_ATTR);
+        if (matched == null) {
+            matched = snapshot.routePaths().match(exchange.getRequest().getPath().value());
+            if (matched == null) {
+                matched = NO_ROUTE;
+            }
+            exchange.getAttributes().put(MATCHED_ROUTE_ATTR, matched);
+        }
+        return matched;
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        this.snapshot = compile(properties);
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+    }
+
+    private static Snapshot compile(GatewayRoutingProperties properties) {
+        PathPrefixTrie.Builder<Boolean> publicPaths = PathPrefixTrie.builder();
+        properties.getPublicPaths().forEach(path -> publicPaths.add(path, Boolean.TRUE));
+
+        List<RouteRule> routes = properties.getRoutes().stream()
+                .filter(CompiledPathRules::isComplete)
+                .toList();
+        PathPrefixTrie.Builder<String> routePaths = PathPrefixTrie.builder();
+        routes.forEach(route -> route.getPaths().forEach(path -> routePaths.add(path, route.getId())));
+
+        log.info("Compiled {} public path rules and {} routes", properties.getPublicPaths().size(), routes.size());
+        return new Snapshot(publicPaths.build(), routePaths.build(), routes);
+    }
+
+    private static boolean isComplete(RouteRule route) {
+        if (route.getId() == null || route.getUri() == null) {
+            log.warn("Ignoring gateway route without an id or uri: {}", route);
+            return false;
+        }
+        return true;
+    }
+
+    private record Snapshot(PathPrefixTrie<Boolean> publicPaths, PathPrefixTrie<String> routePaths,
+                            List<RouteRule> routes) {
+    }
+}
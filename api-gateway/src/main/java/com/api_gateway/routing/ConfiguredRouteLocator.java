@@ -0,0 +1,44 @@
+package com.api_gateway.routing;
+
+import com.api_gateway.config.GatewayRoutingProperties.RouteRule;
+import com.api_gateway.filter.JwtAuthenticationFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import reactor.core.publisher.Flux;
+
+/**
+ * Builds gateway routes from the rules in {@code gateway.routing.routes}.
+ * <p>
+ * Each route predicate only compares the route id against the trie lookup memoized on the exchange,
+ * so adding routes does not add path comparisons. The gateway re-reads this locator on every
+ * {@code RefreshRoutesEvent}.
+ */
+public class ConfiguredRouteLocator implements RouteLocator {
+
+    private final CompiledPathRules pathRules;
+    private final GatewayFilter authenticationFilter;
+
+    public ConfiguredRouteLocator(CompiledPathRules pathRules, JwtAuthenticationFilter jwtAuthenticationFilter) {
+        this.pathRules = pathRules;
+        this.authenticationFilter = new OrderedGatewayFilter(
+                jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config()), 0);
+    }
+
+    @Override
+    public Flux<Route> getRoutes() {
+        return Flux.fromIterable(pathRules.routes()).map(this::toRoute);
+    }
+
+    private Route toRoute(RouteRule rule) {
+        String id = rule.getId();
+        return Route.async()
+                .id(id)
+                .uri(rule.getUri())
+                .order(rule.getOrder())
+                .predicate(exchange -> id.equals(pathRules.matchedRouteId(exchange)))
+                .filter(authenticationFilter)
+                .build();
+    }
+}
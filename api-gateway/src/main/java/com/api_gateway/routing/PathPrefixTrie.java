@@ -0,0 +1,154 @@
+package com.api_gateway.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie over request paths, compiled into flat arrays.
+ * <p>
+ * Patterns ending in {@code **} match any path that starts with the text before the wildcard, in the same
+ * way as {@link String#startsWith}. All other patterns must match the whole path. A lookup walks the path
+ * once, so its cost depends on the path length and not on how many patterns were compiled. When several
+ * patterns match, an exact match wins over prefixes and otherwise the longest prefix wins.
+ *
+ * @param <T> value attached to each pattern
+ */
+public final class PathPrefixTrie<T> {
+
+    public static final String PREFIX_WILDCARD = "**";
+
+    private final int[] edgeStart;
+    private final int[] edgeCount;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final Object[] exactValues;
+    private final Object[] prefixValues;
+
+    private PathPrefixTrie(int[] edgeStart, int[] edgeCount, char[] edgeChars, int[] edgeTargets,
+                           Object[] exactValues, Object[] prefixValues) {
+        this.edgeStart = edgeStart;
+        this.edgeCount = edgeCount;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.exactValues = exactValues;
+        this.prefixValues = prefixValues;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public boolean matches(String path) {
+        return match(path) != null;
+    }
+
+    /**
+     * Returns the value of the best matching pattern, or {@code null} when nothing matches.
+     */
+    @SuppressWarnings("unchecked")
+    public T match(String path) {
+        int node = 0;
+        Object best = prefixValues[0];
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            node = child(node, path.charAt(i));
+            if (node < 0) {
+                return (T) best;
+            }
+            if (prefixValues[node] != null) {
+                best = prefixValues[node];
+            }
+        }
+        return (T) (exactValues[node] != null ? exactValues[node] : best);
+    }
+
+    private int child(int node, char c) {
+        int low = edgeStart[node];
+        int high = low + edgeCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = edgeChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    public static final class Builder<T> {
+
+        private final Node root = new Node();
+        private int nodeCount = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a pattern. The first value registered for a pattern is kept.
+         */
+        public Builder<T> add(String pattern, T value) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Path pattern must not be empty");
+            }
+            boolean prefix = pattern.endsWith(PREFIX_WILDCARD);
+            String literal = prefix ? pattern.substring(0, pattern.length() - PREFIX_WILDCARD.length()) : pattern;
+
+            Node node = root;
+            for (int i = 0; i < literal.length(); i++) {
+                Node next = node.children.get(literal.charAt(i));
+                if (next == null) {
+                    next = new Node();
+                    node.children.put(literal.charAt(i), next);
+                    nodeCount++;
+                }
+                node = next;
+            }
+            if (prefix && node.prefixValue == null) {
+                node.prefixValue = value;
+            } else if (!prefix && node.exactValue == null) {
+                node.exactValue = value;
+            }
+            return this;
+        }
+
+        public PathPrefixTrie<T> build() {
+            int[] edgeStart = new int[nodeCount];
+            int[] edgeCount = new int[nodeCount];
+            char[] edgeChars = new char[Math.max(0, nodeCount - 1)];
+            int[] edgeTargets = new int[Math.max(0, nodeCount - 1)];
+            Object[] exactValues = new Object[nodeCount];
+            Object[] prefixValues = new Object[nodeCount];
+
+            // Breadth-first numbering keeps each node's edges contiguous and sorted by character
+            List<Node> order = new ArrayList<>(nodeCount);
+            order.add(root);
+            int edge = 0;
+            for (int id = 0; id < order.size(); id++) {
+                Node node = order.get(id);
+                exactValues[id] = node.exactValue;
+                prefixValues[id] = node.prefixValue;
+                edgeStart[id] = edge;
+                edgeCount[id] = node.children.size();
+                for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                    edgeChars[edge] = child.getKey();
+                    edgeTargets[edge] = order.size();
+                    order.add(child.getValue());
+                    edge++;
+                }
+            }
+            return new PathPrefixTrie<>(edgeStart, edgeCount, edgeChars, edgeTargets, exactValues, prefixValues);
+        }
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private Object exactValue;
+        private Object prefixValue;
+    }
+}
@@ -0,0 +1,59 @@
+package com.api_gateway.cache;
+
+import com.api_gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTests {
+
+    private final ResponseCache cache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void keyIgnoresParameterOrderEmptyValuesAndTrailingSlash() {
+        String a = ResponseCache.key(MockServerHttpRequest.get("/api/restaurants/public/?size=20&page=1&sort=").build());
+        String b = ResponseCache.key(MockServerHttpRequest.get("/api/restaurants/public?page=1&size=20").build());
+
+        assertThat(a).isEqualTo(b).isEqualTo("/api/restaurants/public?page=1&size=20");
+    }
+
+    @Test
+    void writeToRestaurantInvalidatesItsPagesAndListingsOnly() {
+        long generation = cache.generation();
+        cache.put("/api/restaurants/public?page=0", new byte[]{1}, null, generation);
+        cache.put("/api/restaurants/public/7", new byte[]{2}, null, generation);
+        cache.put("/api/restaurants/public/7/menus?page=0", new byte[]{3}, null, generation);
+        cache.put("/api/restaurants/public/70", new byte[]{4}, null, generation);
+
+        cache.invalidateFor("/api/restaurants/7/menus/3");
+
+        assertThat(cache.get("/api/restaurants/public?page=0")).isNull();
+        assertThat(cache.get("/api/restaurants/public/7")).isNull();
+        assertThat(cache.get("/api/restaurants/public/7/menus?page=0")).isNull();
+        assertThat(cache.get("/api/restaurants/public/70")).isNotNull();
+    }
+
+    @Test
+    void anyRestaurantOrMenuWriteInvalidatesSearchResults() {
+        for (String writePath : new String[]{"/api/restaurants", "/api/restaurants/7", "/api/restaurants/7/menus/3"}) {
+            cache.put("/api/restaurants/public/search?q=pizza", new byte[]{1}, null, cache.generation());
+            cache.put("/api/restaurants/public/search?limit=5&q=grill", new byte[]{2}, null, cache.generation());
+
+            cache.invalidateFor(writePath);
+
+            assertThat(cache.get("/api/restaurants/public/search?q=pizza")).as(writePath).isNull();
+            assertThat(cache.get("/api/restaurants/public/search?limit=5&q=grill")).as(writePath).isNull();
+        }
+    }
+
+    @Test
+    void responseFetchedBeforeInvalidationIsNotStored() {
+        long generation = cache.generation();
+        cache.invalidateFor("/api/restaurants");
+
+        assertThat(cache.put("/api/restaurants/public", new byte[]{1}, null, generation)).isNull();
+        assertThat(cache.get("/api/restaurants/public")).isNull();
+    }
+}
@@ -0,0 +1,62 @@
+package com.api_gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTests {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void hitReturnsTheCachedIdentityWithoutVerifyingAgain() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        VerifiedToken first = cache.get(TOKEN, verifier(expiresAt));
+        VerifiedToken second = cache.get(TOKEN, verifier(expiresAt));
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void entryExpiresAtTheTokensExp() throws InterruptedException {
+        long expiresAt = System.currentTimeMillis() + 100;
+        cache.get(TOKEN, verifier(expiresAt));
+
+        Thread.sleep(expiresAt - System.currentTimeMillis() + 20);
+        cache.get(TOKEN, verifier(System.currentTimeMillis() + 60_000));
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void tokenThatFailsVerificationIsNeverCached() {
+        Function<String, VerifiedToken> rejecting = token -> {
+            verifications.incrementAndGet();
+            throw new IllegalArgumentException("Invalid signature");
+        };
+
+        assertThatThrownBy(() -> cache.get(TOKEN, rejecting)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cache.get(TOKEN, rejecting)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private Function<String, VerifiedToken> verifier(long expiresAtMillis) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new VerifiedToken("42", "owner@bytebites.com", "ROLE_RESTAURANT_OWNER", expiresAtMillis);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.api_gateway.coalescing;
+
+import com.api_gateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescingFilter filter = new RequestCoalescingFilter(new CoalescingProperties(), registry);
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.Empty<Void> release = Sinks.empty();
+        GatewayFilterChain upstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                byte[] body = "{\"menus\":[]}".getBytes(StandardCharsets.UTF_8);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }));
+        };
+
+        MockServerWebExchange first = exchange("/api/restaurants/public/1/menus");
+        MockServerWebExchange second = exchange("/api/restaurants/public/1/menus");
+        Mono<Void> leader = filter.filter(first, upstream);
+        Mono<Void> follower = filter.filter(second, upstream);
+
+        Mono.when(leader, follower, Mono.fromRunnable(release::tryEmitEmpty)).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("{\"menus\":[]}");
+        assertThat(registry.counter("gateway.coalescing.collapsed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsOutsideConfiguredPathsAreNotCoalesced() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GatewayFilterChain upstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return exchange.getResponse().setComplete();
+        };
+
+        filter.filter(exchange("/api/orders"), upstream).block();
+        filter.filter(exchange("/api/orders"), upstream).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
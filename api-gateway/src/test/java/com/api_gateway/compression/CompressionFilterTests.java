@@ -0,0 +1,84 @@
+package com.api_gateway.compression;
+
+import com.api_gateway.config.CompressionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionFilterTests {
+
+    private final CompressionFilter filter = new CompressionFilter(new CompressionProperties());
+
+    @Test
+    void streamedJsonIsGzippedWithWeakEtag() throws IOException {
+        byte[] body = StreamingCompressorTests.catalogJson(100);
+        MockServerWebExchange exchange = exchange("gzip, deflate");
+
+        filter.filter(exchange, upstream(body, 4096, "\"abc\"")).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(headers.getETag()).isEqualTo("W/\"abc\"");
+        assertThat(headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        byte[] compressed = DataBufferUtils.join(exchange.getResponse().getBody())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .block();
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEqualTo(body);
+    }
+
+    @Test
+    void smallBodiesAndClientsWithoutGzipAreLeftAlone() {
+        MockServerWebExchange small = exchange("gzip");
+        filter.filter(small, upstream("{\"success\":true}".getBytes(), 4096, null)).block();
+        assertThat(small.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(small.getResponse().getBodyAsString().block()).isEqualTo("{\"success\":true}");
+
+        MockServerWebExchange identity = exchange("identity");
+        filter.filter(identity, upstream(StreamingCompressorTests.catalogJson(100), 4096, null)).block();
+        assertThat(identity.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    private static GatewayFilterChain upstream(byte[] body, int chunkSize, String etag) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (etag != null) {
+                response.getHeaders().setETag(etag);
+            }
+            if (body.length <= chunkSize) {
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+            }
+            return response.writeWith(Flux.range(0, (body.length + chunkSize - 1) / chunkSize)
+                    .map(i -> {
+                        int offset = i * chunkSize;
+                        int length = Math.min(chunkSize, body.length - offset);
+                        return response.bufferFactory().allocateBuffer(length).write(body, offset, length);
+                    }));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurants/public")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+}
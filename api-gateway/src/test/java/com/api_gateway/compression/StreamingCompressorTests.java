@@ -0,0 +1,108 @@
+package com.api_gateway.compression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingCompressorTests {
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final DeflaterPool pool = new DeflaterPool(6, 4);
+
+    @Test
+    void gzipOutputOfChunkedInputInflatesToTheOriginal() throws IOException {
+        byte[] body = catalogJson(200);
+
+        byte[] compressed = compress(ContentCoding.GZIP, body, 1000);
+
+        assertThat(compressed.length).isLessThan(body.length / 4);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEqualTo(body);
+    }
+
+    @Test
+    void deflateOutputIsZlibWrapped() throws IOException {
+        byte[] body = catalogJson(50);
+
+        byte[] compressed = compress(ContentCoding.DEFLATE, body, 333);
+
+        assertThat(new InflaterInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEqualTo(body);
+    }
+
+    @Test
+    void pooledDeflatersAreResetBetweenResponses() throws IOException {
+        byte[] first = catalogJson(10);
+        byte[] second = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+
+        compress(ContentCoding.GZIP, first, 64);
+        byte[] compressed = compress(ContentCoding.GZIP, second, 64);
+
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEqualTo(second);
+    }
+
+    @Test
+    void negotiatesByQualityPreferringGzip() {
+        assertThat(ContentCoding.negotiate(List.of("gzip, deflate, br"))).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate(List.of("deflate, gzip;q=0.5"))).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(ContentCoding.negotiate(List.of("gzip;q=0, *"))).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(ContentCoding.negotiate(List.of("br"))).isNull();
+        assertThat(ContentCoding.negotiate(List.of("identity"))).isNull();
+    }
+
+    private byte[] compress(ContentCoding coding, byte[] body, int chunkSize) {
+        StreamingCompressor compressor = new StreamingCompressor(coding, pool, bufferFactory);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int offset = 0; offset < body.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, body.length - offset);
+            DataBuffer chunk = bufferFactory.allocateBuffer(length).write(body, offset, length);
+            drain(compressor.compress(chunk), out);
+        }
+        drain(compressor.finish(), out);
+        compressor.close();
+        return out.toByteArray();
+    }
+
+    private static void drain(DataBuffer buffer, ByteArrayOutputStream out) {
+        if (buffer == null) {
+            return;
+        }
+        try (InputStream in = buffer.asInputStream()) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    static byte[] catalogJson(int restaurants) {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"message\":\"Operation completed successfully\",\"data\":{\"content\":[");
+        for (int i = 0; i < restaurants; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Restaurant ").append(i)
+                    .append("\",\"type\":\"").append(i % 3 == 0 ? "ITALIAN" : i % 3 == 1 ? "RWANDAN" : "FAST_FOOD")
+                    .append("\",\"location\":\"KG ").append(100 + i).append(" St, Kigali\",\"ownerId\":\"")
+                    .append(1000 + i % 17).append("\"}");
+        }
+        json.append("],\"pageable\":{\"pageNumber\":0,\"pageSize\":").append(restaurants)
+                .append(",\"sort\":{\"empty\":true,\"sorted\":false,\"unsorted\":true},\"offset\":0,\"paged\":true,\"unpaged\":false}")
+                .append(",\"last\":false,\"totalElements\":5000,\"totalPages\":").append(5000 / Math.max(1, restaurants))
+                .append(",\"size\":").append(restaurants).append(",\"number\":0,\"first\":true,\"numberOfElements\":")
+                .append(restaurants).append(",\"empty\":false},\"timestamp\":\"2025-07-01T12:00:00.000\",\"statusCode\":200}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.api_gateway.limit;
+
+import com.api_gateway.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+    @Test
+    void rejectsOnceLimitIsInFlight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        for (int i = 0; i < properties.getInitialLimit(); i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        limiter.abandon();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void growsWhileSaturatedAndLatencyIsSteady() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        long now = 0;
+        for (int window = 0; window < 20; window++) {
+            now += WINDOW;
+            saturate(limiter, FAST, false, now);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(properties.getInitialLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+        long now = 0;
+        for (int window = 0; window < 5; window++) {
+            now += WINDOW;
+            saturate(limiter, FAST, false, now);
+        }
+        int before = limiter.getLimit();
+
+        for (int window = 0; window < 20; window++) {
+            now += WINDOW;
+            saturate(limiter, FAST * 10, false, now);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(properties.getMinLimit());
+    }
+
+    @Test
+    void overloadSignalsCutTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        saturate(limiter, FAST, true, WINDOW);
+
+        assertThat(limiter.getLimit()).isLessThan(properties.getInitialLimit());
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, 0);
+
+        long now = 0;
+        for (int window = 0; window < 20; window++) {
+            now += WINDOW;
+            for (int i = 0; i < properties.getMinWindowSamples(); i++) {
+                limiter.tryAcquire();
+                limiter.release(FAST, false, now);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(properties.getInitialLimit());
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rtt, boolean dropped, long now) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rtt, dropped, now);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.api_gateway.limit;
+
+import com.api_gateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ConcurrencyLimitFilterTests {
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrencyLimitFilter limitFilter = new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(),
+            mock(ObjectProvider.class), new SimpleMeterRegistry());
+    private final ConcurrencySampleFilter sampleFilter = new ConcurrencySampleFilter();
+
+    @Test
+    void slotIsFreedWhenUpstreamHeadersArriveNotWhenTheBodyIsWritten() {
+        MockServerWebExchange exchange = routed();
+        Sinks.Empty<Void> bodyWritten = Sinks.empty();
+
+        // The inner chain stands in for NettyRoutingFilter, the outer then() for NettyWriteResponseFilter
+        Disposable request = limitFilter.filter(exchange, limited -> sampleFilter.filter(limited, upstream -> {
+            upstream.getResponse().setStatusCode(HttpStatus.OK);
+            upstream.getAttributes().put(ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR, new Object());
+            return Mono.empty();
+        }).then(bodyWritten.asMono())).subscribe();
+
+        AdaptiveConcurrencyLimiter limiter = limitFilter.limiters().get("restaurant-service");
+        assertThat(limiter.getInFlight()).isZero();
+
+        // A slow client download that ends in a cancel must not free the slot a second time
+        request.dispose();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void cancelBeforeUpstreamResponseFreesTheSlotWithoutSample() {
+        MockServerWebExchange exchange = routed();
+        GatewayFilterChain pending = limited -> sampleFilter.filter(limited, upstream -> Mono.never());
+
+        Disposable request = limitFilter.filter(exchange, pending).subscribe();
+        AdaptiveConcurrencyLimiter limiter = limitFilter.limiters().get("restaurant-service");
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+
+        request.dispose();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void upstreamErrorFreesTheSlot() {
+        MockServerWebExchange exchange = routed();
+
+        limitFilter.filter(exchange, limited -> sampleFilter.filter(limited,
+                upstream -> Mono.error(new IllegalStateException("connection refused"))))
+                .onErrorComplete()
+                .block();
+
+        assertThat(limitFilter.limiters().get("restaurant-service").getInFlight()).isZero();
+    }
+
+    private static MockServerWebExchange routed() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurants/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("restaurant-service")
+                .uri("lb://restaurant-service")
+                .predicate(ignored -> true)
+                .build());
+        return exchange;
+    }
+}
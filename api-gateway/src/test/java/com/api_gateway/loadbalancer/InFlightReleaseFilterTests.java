@@ -0,0 +1,46 @@
+package com.api_gateway.loadbalancer;
+
+import com.api_gateway.config.LatencyAwareBalancingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightReleaseFilterTests {
+
+    private final LatencyAwareBalancingProperties properties = new LatencyAwareBalancingProperties();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(properties);
+    private final LatencyRecordingLifecycle lifecycle = new LatencyRecordingLifecycle(registry, properties);
+    private final InFlightReleaseFilter filter = new InFlightReleaseFilter();
+
+    private final ServiceInstance instance =
+            new DefaultServiceInstance("restaurant-1", "restaurant-service", "restaurant-1.local", 8080, false);
+
+    @Test
+    void cancelledRequestNoLongerCountsAsOutstanding() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurants/1"));
+
+        Disposable subscription = filter.filter(exchange, chained -> {
+            // What ReactiveLoadBalancerClientFilter does once an instance is chosen
+            lifecycle.onStartRequest(new DefaultRequest<>(new RequestDataContext(
+                    new RequestData(chained.getRequest(), chained.getAttributes()), "default")),
+                    new DefaultResponse(instance));
+            return Mono.never();
+        }).subscribe();
+        assertThat(registry.stats(instance, System.nanoTime()).outstanding()).isEqualTo(1);
+
+        // The client went away; the load balancer never calls onComplete
+        subscription.dispose();
+
+        assertThat(registry.stats(instance, System.nanoTime()).outstanding()).isZero();
+    }
+}
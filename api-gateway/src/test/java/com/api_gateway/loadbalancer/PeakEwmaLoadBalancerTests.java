@@ -0,0 +1,137 @@
+package com.api_gateway.loadbalancer;
+
+import com.api_gateway.config.LatencyAwareBalancingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PeakEwmaLoadBalancerTests {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LatencyAwareBalancingProperties properties = new LatencyAwareBalancingProperties();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(properties);
+    private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(null, "restaurant-service", registry);
+
+    private final ServiceInstance healthy = instance("restaurant-1");
+    private final ServiceInstance slow = instance("restaurant-2");
+    private final ServiceInstance other = instance("restaurant-3");
+
+    @Test
+    void slowInstanceReceivesFarLessTraffic() {
+        properties.setSlowStart(Duration.ZERO);
+        long now = System.nanoTime();
+        record(healthy, 10 * MILLIS, now);
+        record(other, 10 * MILLIS, now);
+        record(slow, 400 * MILLIS, now);
+
+        Map<String, Integer> picks = pick(List.of(healthy, slow, other), 3000);
+
+        // P2C only sends to the slow replica when it is drawn against itself, which cannot happen
+        assertThat(picks.getOrDefault("restaurant-2", 0)).isZero();
+        assertThat(picks.get("restaurant-1")).isGreaterThan(1000);
+        assertThat(picks.get("restaurant-3")).isGreaterThan(1000);
+    }
+
+    @Test
+    void outstandingRequestsRaiseTheScore() {
+        properties.setSlowStart(Duration.ZERO);
+        long now = System.nanoTime();
+        record(healthy, 10 * MILLIS, now);
+        record(other, 10 * MILLIS, now);
+        for (int i = 0; i < 5; i++) {
+            registry.stats(healthy, now).requestStarted();
+        }
+
+        assertThat(registry.stats(healthy, now).score(now)).isGreaterThan(registry.stats(other, now).score(now));
+    }
+
+    @Test
+    void newInstancesWarmUpOverTheSlowStartWindow() {
+        long now = System.nanoTime();
+        InstanceStats stats = registry.stats(healthy, now);
+
+        assertThat(stats.weight(now)).isEqualTo(properties.getSlowStartMinWeight());
+        assertThat(stats.weight(now + properties.getSlowStart().toNanos() / 2)).isEqualTo(0.5);
+        assertThat(stats.weight(now + properties.getSlowStart().toNanos())).isEqualTo(1.0);
+    }
+
+    @Test
+    void latencyRecoversGraduallyAfterAPeak() {
+        long now = System.nanoTime();
+        InstanceStats stats = registry.stats(slow, now);
+        stats.requestStarted().complete(500 * MILLIS, now);
+        assertThat(stats.ewmaNanos(now)).isEqualTo(500.0 * MILLIS);
+
+        long later = now + properties.getDecay().toNanos();
+        stats.requestStarted().complete(10 * MILLIS, later);
+
+        assertThat(stats.ewmaNanos(later)).isBetween(10.0 * MILLIS, 500.0 * MILLIS);
+        assertThat(stats.ewmaNanos(later)).isLessThan(200.0 * MILLIS);
+    }
+
+    @Test
+    void unsampledInstanceDecaysBackTowardNeutral() {
+        long now = System.nanoTime();
+        InstanceStats stats = registry.stats(slow, now);
+        stats.requestStarted().complete(properties.getFailurePenalty().toNanos(), now);
+
+        double neutral = properties.getDefaultLatency().toNanos();
+        long decay = properties.getDecay().toNanos();
+        assertThat(stats.ewmaNanos(now + decay)).isLessThan(properties.getFailurePenalty().toNanos() / 2.0);
+        assertThat(stats.ewmaNanos(now + 10 * decay)).isCloseTo(neutral, within(0.01 * neutral));
+    }
+
+    @Test
+    void outstandingRequestIsReleasedOnce() {
+        long now = System.nanoTime();
+        InstanceStats stats = registry.stats(healthy, now);
+        InstanceStats.InFlight cancelled = stats.requestStarted();
+        InstanceStats.InFlight completed = stats.requestStarted();
+        assertThat(stats.outstanding()).isEqualTo(2);
+
+        assertThat(cancelled.release()).isTrue();
+        assertThat(cancelled.release()).isFalse();
+        completed.complete(10 * MILLIS, now);
+        completed.release();
+
+        assertThat(stats.outstanding()).isZero();
+    }
+
+    @Test
+    void deregisteredInstancesAreForgotten() {
+        long now = System.nanoTime();
+        record(healthy, 10 * MILLIS, now);
+        record(slow, 10 * MILLIS, now);
+
+        loadBalancer.choose(List.of(healthy));
+
+        assertThat(registry.snapshot().get("restaurant-service")).containsOnlyKeys("restaurant-1");
+    }
+
+    private Map<String, Integer> pick(List<ServiceInstance> instances, int times) {
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            picks.merge(loadBalancer.choose(instances).getServer().getInstanceId(), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    private void record(ServiceInstance instance, long latency, long now) {
+        InstanceStats stats = registry.stats(instance, now);
+        stats.requestStarted().complete(latency, now);
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "restaurant-service", id + ".local", 8080, false);
+    }
+}
@@ -0,0 +1,46 @@
+package com.api_gateway.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLatencyFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestLatencyFilter filter = new RequestLatencyFilter(registry);
+
+    @Test
+    void routeMatchedInsideTheChainIsUsedForTheSample() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders"));
+
+        filter.filter(exchange, matched -> {
+            // Route predicates run after this filter, in the gateway's handler mapping
+            matched.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                    Route.async().id("order-service").uri("http://localhost").predicate(e -> true).build());
+            matched.getResponse().setStatusCode(HttpStatus.OK);
+            return matched.getResponse().setComplete();
+        }).block();
+
+        assertThat(registry.get("gateway.requests.latency").tag("route", "order-service").tag("status", "2xx")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unmatchedRequestsAreTaggedUnknown() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/nowhere"));
+
+        filter.filter(exchange, unmatched -> {
+            unmatched.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return unmatched.getResponse().setComplete();
+        }).block();
+
+        assertThat(registry.get("gateway.requests.latency").tag("route", "unknown").tag("status", "4xx")
+                .timer().count()).isEqualTo(1);
+    }
+}
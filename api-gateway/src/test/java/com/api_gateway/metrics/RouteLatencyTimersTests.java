@@ -0,0 +1,47 @@
+package com.api_gateway.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteLatencyTimersTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RouteLatencyTimers timers = new RouteLatencyTimers("test.latency", "test", registry);
+
+    @Test
+    void recordsPerRouteAndStatusClass() {
+        timers.record("restaurant-service", HttpStatus.OK, TimeUnit.MILLISECONDS.toNanos(5));
+        timers.record("restaurant-service", HttpStatus.CREATED, TimeUnit.MILLISECONDS.toNanos(7));
+        timers.record("restaurant-service", HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.MILLISECONDS.toNanos(9));
+        timers.record("auth-service", HttpStatus.UNAUTHORIZED, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(timer("restaurant-service", "2xx").count()).isEqualTo(2);
+        assertThat(timer("restaurant-service", "2xx").totalTime(TimeUnit.MILLISECONDS)).isEqualTo(12);
+        assertThat(timer("restaurant-service", "5xx").count()).isEqualTo(1);
+        assertThat(timer("auth-service", "4xx").count()).isEqualTo(1);
+    }
+
+    @Test
+    void missingStatusIsRecordedAsUnknown() {
+        timers.record("order-service", null, 1_000);
+
+        assertThat(timer("order-service", "UNKNOWN").count()).isEqualTo(1);
+    }
+
+    @Test
+    void missingRouteIsRecordedAsUnknown() {
+        timers.record(null, HttpStatus.NOT_FOUND, 1_000);
+
+        assertThat(timer(RouteLatencyTimers.UNKNOWN_ROUTE, "4xx").count()).isEqualTo(1);
+    }
+
+    private Timer timer(String route, String status) {
+        return registry.get("test.latency").tag("route", route).tag("status", status).timer();
+    }
+}
@@ -0,0 +1,77 @@
+package com.api_gateway.ratelimit;
+
+import com.api_gateway.config.RateLimitProperties;
+import com.api_gateway.filter.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTests {
+
+    private static final GatewayFilterChain UPSTREAM = exchange -> exchange.getResponse().setComplete();
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    @Test
+    void clientSuppliedUserIdDoesNotGetItsOwnBucket() {
+        properties.getDefaults().setUserCapacity(2);
+        properties.getDefaults().setUserRefillPerSecond(0.001);
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange admitted = exchange("spoofed-" + i);
+            filter.filter(admitted, UPSTREAM).block();
+            assertThat(admitted.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+
+        MockServerWebExchange rejected = exchange("spoofed-2");
+        filter.filter(rejected, UPSTREAM).block();
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void verifiedUsersAreLimitedSeparately() {
+        properties.getDefaults().setUserCapacity(1);
+        properties.getDefaults().setUserRefillPerSecond(0.001);
+        RateLimitFilter filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+
+        for (String userId : new String[]{"1", "2"}) {
+            MockServerWebExchange exchange = exchange(null);
+            exchange.getAttributes().put(JwtAuthenticationFilter.USER_ID_ATTR, userId);
+            filter.filter(exchange, UPSTREAM).block();
+            assertThat(exchange.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+    }
+
+    @Test
+    void nonPositiveRefillRatesAreRejected() {
+        properties.getDefaults().setUserRefillPerSecond(0);
+        assertThatThrownBy(properties::afterPropertiesSet).isInstanceOf(IllegalArgumentException.class);
+
+        properties.getDefaults().setUserRefillPerSecond(20);
+        RateLimitProperties.Limit route = new RateLimitProperties.Limit();
+        route.setRouteCapacity(100);
+        properties.getRoutes().put("restaurant-service", route);
+        assertThatThrownBy(properties::afterPropertiesSet).isInstanceOf(IllegalArgumentException.class);
+
+        route.setRouteRefillPerSecond(50);
+        properties.afterPropertiesSet();
+    }
+
+    private static MockServerWebExchange exchange(String userIdHeader) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/restaurants/public")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 40000));
+        if (userIdHeader != null) {
+            request.header("X-User-Id", userIdHeader);
+        }
+        return MockServerWebExchange.from(request);
+    }
+}
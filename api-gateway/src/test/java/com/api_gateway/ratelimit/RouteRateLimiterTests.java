@@ -0,0 +1,30 @@
+package com.api_gateway.ratelimit;
+
+import com.api_gateway.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteRateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void requestRejectedByTheRouteKeepsItsCallerToken() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setUserCapacity(1);
+        limit.setUserRefillPerSecond(0.001);
+        limit.setRouteCapacity(1);
+        limit.setRouteRefillPerSecond(1);
+        long now = 1_000 * SECOND;
+        RouteRateLimiter limiter = new RouteRateLimiter(limit, new RateLimitProperties(), now);
+
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        assertThat(limiter.tryAcquire("bob", now)).isPositive();
+
+        // Bob's only token refills in 1000s; it is still there once the route has a token again
+        assertThat(limiter.tryAcquire("bob", now + SECOND)).isZero();
+    }
+}
@@ -0,0 +1,38 @@
+package com.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CAPACITY = 5;
+
+    @Test
+    void admitsBurstThenRefillsOneTokenPerInterval() {
+        long now = 1_000_000_000L;
+        TokenBucket bucket = new TokenBucket(now);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(bucket.tryAcquire(now, INTERVAL, INTERVAL * CAPACITY)).isZero();
+        }
+        long wait = bucket.tryAcquire(now, INTERVAL, INTERVAL * CAPACITY);
+        assertThat(wait).isEqualTo(INTERVAL);
+
+        assertThat(bucket.tryAcquire(now + wait, INTERVAL, INTERVAL * CAPACITY)).isZero();
+        assertThat(bucket.tryAcquire(now + wait, INTERVAL, INTERVAL * CAPACITY)).isPositive();
+    }
+
+    @Test
+    void bucketBecomesIdleOnceFullForLongEnough() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(now);
+        bucket.tryAcquire(now, INTERVAL, INTERVAL * CAPACITY);
+
+        assertThat(bucket.isIdle(now + INTERVAL, INTERVAL)).isFalse();
+        assertThat(bucket.isIdle(now + 3 * INTERVAL, INTERVAL)).isTrue();
+    }
+}
@@ -0,0 +1,55 @@
+package com.api_gateway.routing;
+
+import com.api_gateway.config.GatewayRoutingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathPrefixTrieTests {
+
+    private static final List<String> SAMPLE_PATHS = List.of(
+            "/", "", "/auth/login", "/auth/login/extra", "/auth/loginx", "/auth/register", "/auth/user/me",
+            "/oauth2/authorization/google", "/oauth2", "/login/oauth2/code/google", "/login.html",
+            "/login.html/x", "/api/restaurants/public", "/api/restaurants/public/12/menus",
+            "/api/restaurants/12", "/actuator/health", "/actuator/healthz", "/actuator/metrics",
+            "/fallback", "/fallback/x", "/admin/users");
+
+    @Test
+    void defaultPublicPathsMatchLegacyChain() {
+        PathPrefixTrie.Builder<Boolean> builder = PathPrefixTrie.builder();
+        new GatewayRoutingProperties().getPublicPaths().forEach(p -> builder.add(p, Boolean.TRUE));
+        PathPrefixTrie<Boolean> trie = builder.build();
+
+        for (String path : SAMPLE_PATHS) {
+            assertThat(trie.matches(path)).as(path).isEqualTo(legacyIsPublic(path));
+        }
+    }
+
+    @Test
+    void exactMatchWinsThenLongestPrefix() {
+        PathPrefixTrie<String> trie = PathPrefixTrie.<String>builder()
+                .add("/api/**", "api")
+                .add("/api/restaurants/**", "restaurants")
+                .add("/api/restaurants/public", "exact")
+                .build();
+
+        assertThat(trie.match("/api/orders")).isEqualTo("api");
+        assertThat(trie.match("/api/restaurants/1")).isEqualTo("restaurants");
+        assertThat(trie.match("/api/restaurants/public")).isEqualTo("exact");
+        assertThat(trie.match("/api/restaurants/public/1")).isEqualTo("restaurants");
+        assertThat(trie.match("/auth")).isNull();
+    }
+
+    static boolean legacyIsPublic(String path) {
+        return path.startsWith("/auth/login") ||
+                path.startsWith("/auth/register") ||
+                path.startsWith("/oauth2/") ||
+                path.startsWith("/login/oauth2/") ||
+                path.equals("/login.html") ||
+                path.startsWith("/api/restaurants/public") ||
+                path.startsWith("/actuator/health") ||
+                path.equals("/fallback");
+    }
+}
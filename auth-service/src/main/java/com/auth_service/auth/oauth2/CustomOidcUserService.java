@@ -1,5 +1,7 @@
 package com.auth_service.auth.oauth2;
 
+import com.auth_service.cache.OidcSubjectCache;
+import com.auth_service.cache.UserDetailsCache;
 import com.auth_service.model.User;
 import com.auth_service.auth.CustomOidcUserPrincipal;
 import com.auth_service.service.UserService;
@@ -7,17 +9,26 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 
+/**
+ * Resolves an OIDC login to the local user, registering it on first login. A repeated login for the same
+ * subject is answered from {@link OidcSubjectCache} and {@link UserDetailsCache} without touching the
+ * database.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CustomOidcUserService implements OAuth2UserService<OidcUserRequest, OidcUser> {
 
     private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
+    private final OidcSubjectCache subjectCache;
 
     @Override
     public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
@@ -49,10 +60,27 @@ public class CustomOidcUserService implements OAuth2UserService<OidcUserRequest,
         };
 
         // Register or fetch existing user using your existing logic
-        User user = userService.registerOAuth2User(oAuth2UserInfo);
-        log.info(">>> registerOAuth2User returned: {}", user.getId());
+        User user = resolveUser(userRequest.getIdToken(), oAuth2UserInfo);
+        log.info(">>> Resolved OIDC login to user: {}", user.getId());
 
         // Create custom OIDC user principal
         return new CustomOidcUserPrincipal(user, userRequest.getIdToken(), userInfo);
     }
+
+    private User resolveUser(OidcIdToken idToken, OAuth2UserInfo userInfo) {
+        String username = subjectCache.getUsername(idToken);
+        if (username != null) {
+            try {
+                return (User) userDetailsCache.get(username, userService::loadUserByUsername);
+            } catch (UsernameNotFoundException e) {
+                // Deleted since the subject was cached, so register it again
+                subjectCache.evict(idToken);
+            }
+        }
+
+        User user = userService.registerOAuth2User(userInfo);
+        subjectCache.put(idToken, user.getUsername());
+        userDetailsCache.get(user.getUsername(), key -> user);
+        return user;
+    }
 }
\ No newline at end of file
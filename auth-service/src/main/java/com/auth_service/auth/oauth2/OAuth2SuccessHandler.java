@@ -4,7 +4,7 @@ import com.auth_service.dto.response.ApiResponseDTO;
 import com.auth_service.dto.response.JwtResponseDTO;
 import com.auth_service.model.User;
 import com.auth_service.auth.CustomOidcUserPrincipal;
-import com.auth_service.util.JwtUtil;
+import com.auth_service.service.RefreshTokenService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,7 +22,7 @@ import java.io.IOException;
 @Slf4j
 public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -38,15 +38,7 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
             log.info("OAuth2 login success for: {} with role: {}", user.getUsername(), user.getRole());
 
-            String token = jwtUtil.generateToken(user.getId().toString(), user.getUsername(), user.getRole().name());
-
-        JwtResponseDTO jwtResponse = JwtResponseDTO.builder()
-                .token(token)
-                .tokenType("Bearer")
-                .username(user.getUsername())
-                .id(user.getId().toString())
-                .role(user.getRole())
-                .build();
+            JwtResponseDTO jwtResponse = refreshTokenService.issueTokens(user);
 
             ApiResponseDTO<JwtResponseDTO> responseDTO = ApiResponseDTO.success("OAuth2 login successful", jwtResponse);
 
@@ -0,0 +1,62 @@
+package com.auth_service.auth.oauth2;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ID token decoders for {@code oauth2Login}, picked up in place of the default
+ * {@link OidcIdTokenDecoderFactory}. Validation is the same (RS256, timestamps, issuer, audience and
+ * nonce through {@link OidcIdTokenValidator}), but signing keys come from {@link OidcProviderKeys}, which
+ * refreshes them in the background instead of re-fetching them on a login once a cached copy expires.
+ */
+@Component
+@RequiredArgsConstructor
+public class OidcIdTokenDecoders implements JwtDecoderFactory<ClientRegistration> {
+
+    private final OidcProviderKeys providerKeys;
+    private final ConcurrentHashMap<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+
+    @Override
+    public JwtDecoder createDecoder(ClientRegistration registration) {
+        return decoders.computeIfAbsent(registration.getRegistrationId(), id -> decoder(registration));
+    }
+
+    private JwtDecoder decoder(ClientRegistration registration) {
+        String jwkSetUri = registration.getProviderDetails().getJwkSetUri();
+        if (!StringUtils.hasText(jwkSetUri)) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("missing_signature_verifier",
+                    "No JWK set URI configured for client registration " + registration.getRegistrationId(), null));
+        }
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256,
+                providerKeys.keySet(jwkSetUri)));
+        // Claims are checked by the Spring validators below, as NimbusJwtDecoder's own builders do
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(), new OidcIdTokenValidator(registration)));
+        decoder.setClaimSetConverter(new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters()));
+        return decoder;
+    }
+}
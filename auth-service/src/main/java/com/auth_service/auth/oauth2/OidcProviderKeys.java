@@ -0,0 +1,187 @@
+package com.auth_service.auth.oauth2;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Signing keys of the OIDC providers, fetched from each provider's JWK set URI and kept in memory.
+ * <p>
+ * Key sets are loaded at startup and refreshed in the background, so an ID token is normally verified
+ * without a call to the provider. A token signed with a key we do not hold yet, as after a rotation,
+ * triggers an immediate refresh, at most once per {@code min-refresh-interval} so that tokens with made-up
+ * key ids cannot turn into a stream of requests to the provider.
+ */
+@Component
+@Slf4j
+public class OidcProviderKeys {
+
+    private final ClientRegistrationRepository clientRegistrations;
+    private final RestClient restClient;
+    private final long minRefreshIntervalNanos;
+    private final ConcurrentHashMap<String, ProviderKeySet> keySets = new ConcurrentHashMap<>();
+
+    private final Counter fetched;
+    private final Counter fetchFailed;
+
+    @Autowired
+    public OidcProviderKeys(ClientRegistrationRepository clientRegistrations,
+                            RestClient.Builder restClientBuilder,
+                            @Value("${auth.oidc.jwks-timeout:5s}") Duration timeout,
+                            @Value("${auth.oidc.jwks-min-refresh-interval:1m}") Duration minRefreshInterval,
+                            MeterRegistry meterRegistry) {
+        this(clientRegistrations, restClientBuilder.requestFactory(requestFactory(timeout)).build(),
+                minRefreshInterval, meterRegistry);
+    }
+
+    OidcProviderKeys(ClientRegistrationRepository clientRegistrations, RestClient restClient,
+                     Duration minRefreshInterval, MeterRegistry meterRegistry) {
+        this.clientRegistrations = clientRegistrations;
+        this.restClient = restClient;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+
+        this.fetched = fetches(meterRegistry, "success");
+        this.fetchFailed = fetches(meterRegistry, "failure");
+    }
+
+    /**
+     * Returns the key source for {@code jwkSetUri}. Keys are fetched on first use if they were not
+     * preloaded.
+     */
+    public JWKSource<SecurityContext> keySet(String jwkSetUri) {
+        return keySets.computeIfAbsent(jwkSetUri, ProviderKeySet::new);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!(clientRegistrations instanceof Iterable<?> registrations)) {
+            return;
+        }
+        for (Object registration : registrations) {
+            String jwkSetUri = ((ClientRegistration) registration).getProviderDetails().getJwkSetUri();
+            if (StringUtils.hasText(jwkSetUri)) {
+                keySets.computeIfAbsent(jwkSetUri, ProviderKeySet::new).refreshQuietly();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.oidc.jwks-refresh-interval:15m}",
+            initialDelayString = "${auth.oidc.jwks-refresh-interval:15m}")
+    public void refresh() {
+        keySets.values().forEach(ProviderKeySet::refreshQuietly);
+    }
+
+    private static SimpleClientHttpRequestFactory requestFactory(Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        return requestFactory;
+    }
+
+    private static Counter fetches(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.oidc.jwks.fetches")
+                .description("Requests for an OIDC provider's signing keys")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private final class ProviderKeySet implements JWKSource<SecurityContext> {
+
+        private final String jwkSetUri;
+        private final ReentrantLock refreshLock = new ReentrantLock();
+
+        private volatile JWKSet keys;
+        private volatile long lastAttempt;
+        private volatile boolean attempted;
+
+        private ProviderKeySet(String jwkSetUri) {
+            this.jwkSetUri = jwkSetUri;
+        }
+
+        @Override
+        public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+            JWKSet current = keys;
+            if (current != null) {
+                List<JWK> matches = selector.select(current);
+                if (!matches.isEmpty()) {
+                    return matches;
+                }
+            }
+            // First use, or a key id we have not seen: the provider may have rotated its keys
+            JWKSet refreshed = refreshIfAllowed(current);
+            return refreshed == null ? List.of() : selector.select(refreshed);
+        }
+
+        private JWKSet refreshIfAllowed(JWKSet seen) throws KeySourceException {
+            refreshLock.lock();
+            try {
+                if (keys != seen) {
+                    // Another request refreshed while this one waited for the lock
+                    return keys;
+                }
+                if (attempted && System.nanoTime() - lastAttempt < minRefreshIntervalNanos) {
+                    return keys;
+                }
+                return fetch();
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+
+        private void refreshQuietly() {
+            refreshLock.lock();
+            try {
+                fetch();
+            } catch (KeySourceException e) {
+                log.warn("Could not refresh OIDC signing keys from {}: {}", jwkSetUri, e.getMessage());
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+
+        private JWKSet fetch() throws KeySourceException {
+            attempted = true;
+            lastAttempt = System.nanoTime();
+            try {
+                String body = restClient.get().uri(jwkSetUri).retrieve().body(String.class);
+                JWKSet loaded = JWKSet.parse(body == null ? "" : body);
+                keys = loaded;
+                fetched.increment();
+                log.debug("Loaded {} OIDC signing keys from {}", loaded.size(), jwkSetUri);
+                return loaded;
+            } catch (RestClientException | ParseException e) {
+                fetchFailed.increment();
+                if (keys != null) {
+                    // Keep verifying with the keys we have rather than failing every login
+                    log.warn("Could not refresh OIDC signing keys from {}: {}", jwkSetUri, e.getMessage());
+                    return keys;
+                }
+                throw new KeySourceException("Could not load OIDC signing keys from " + jwkSetUri, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.auth_service.auth.oauth2.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A minimal OIDC provider for running and load-testing the OAuth2 login flow offline, enabled with the
+ * {@code oidc-stub} profile together with the {@code stub} client registration in
+ * {@code application-oidc-stub.properties}.
+ * <p>
+ * The authorization endpoint approves every request immediately and redirects back with a code. The user
+ * is the {@code login_hint} parameter when given, so a load test can spread logins over many accounts by
+ * appending it to the redirect from {@code /oauth2/authorization/stub}. Codes are self-contained rather than
+ * stored, and ID tokens are signed with an RSA key generated at startup and published on the JWK set
+ * endpoint. Not for use outside development.
+ */
+@RestController
+@RequestMapping("/stub-oidc")
+@Profile("oidc-stub")
+@Slf4j
+public class StubOidcProviderController {
+
+    private static final String DEFAULT_USER = "stub-user@bytebites.local";
+    private static final Duration ID_TOKEN_LIFETIME = Duration.ofMinutes(5);
+
+    private final ObjectMapper objectMapper;
+    private final String issuer;
+    private final String clientId;
+    private final String clientSecret;
+    private final RSAKey signingKey;
+    private final Map<String, Object> publicKeys;
+
+    public StubOidcProviderController(ObjectMapper objectMapper,
+                                      @Value("${stub-oidc.base-url}") String baseUrl,
+                                      @Value("${stub-oidc.client-id}") String clientId,
+                                      @Value("${stub-oidc.client-secret}") String clientSecret) throws JOSEException {
+        this.objectMapper = objectMapper;
+        this.issuer = baseUrl + "/stub-oidc";
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.signingKey = new RSAKeyGenerator(2048)
+                .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .generate();
+        this.publicKeys = new JWKSet(signingKey.toPublicJWK()).toJSONObject();
+        log.warn("Stub OIDC provider enabled at {}; every authorization request is approved", issuer);
+    }
+
+    @GetMapping("/authorize")
+    public ResponseEntity<Void> authorize(@RequestParam("client_id") String requestedClientId,
+                                          @RequestParam("redirect_uri") String redirectUri,
+                                          @RequestParam(value = "state", required = false) String state,
+                                          @RequestParam(value = "nonce", required = false) String nonce,
+                                          @RequestParam(value = "login_hint", required = false) String loginHint) throws IOException {
+        if (!clientId.equals(requestedClientId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String email = loginHint == null || loginHint.isBlank() ? DEFAULT_USER : loginHint.trim();
+        String code = encode(new AuthorizationCode(email, nonce, redirectUri));
+
+        URI location = UriComponentsBuilder.fromUriString(redirectUri)
+                .queryParam("code", code)
+                .queryParamIfPresent("state", Optional.ofNullable(state))
+                .encode()
+                .build()
+                .toUri();
+        return ResponseEntity.status(HttpStatus.FOUND).location(location).build();
+    }
+
+    @PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<Map<String, Object>> token(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                     @RequestParam("grant_type") String grantType,
+                                                     @RequestParam("code") String code,
+                                                     @RequestParam(value = "redirect_uri", required = false) String redirectUri) throws JOSEException {
+        if (!isClient(authorization)) {
+            return error(HttpStatus.UNAUTHORIZED, "invalid_client");
+        }
+        if (!"authorization_code".equals(grantType)) {
+            return error(HttpStatus.BAD_REQUEST, "unsupported_grant_type");
+        }
+        AuthorizationCode authorizationCode = decode(code);
+        if (authorizationCode == null
+                || (redirectUri != null && !redirectUri.equals(authorizationCode.redirectUri()))) {
+            return error(HttpStatus.BAD_REQUEST, "invalid_grant");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("access_token", UUID.randomUUID().toString());
+        body.put("token_type", "Bearer");
+        body.put("expires_in", ID_TOKEN_LIFETIME.toSeconds());
+        body.put("scope", "openid email profile");
+        body.put("id_token", idToken(authorizationCode));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    @GetMapping("/jwks")
+    public Map<String, Object> jwks() {
+        return publicKeys;
+    }
+
+    private String idToken(AuthorizationCode code) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                // Stable per email, as a real provider's subject is per account
+                .subject(UUID.nameUUIDFromBytes(code.email().getBytes(StandardCharsets.UTF_8)).toString())
+                .audience(clientId)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(ID_TOKEN_LIFETIME)))
+                .claim("email", code.email())
+                .claim("email_verified", true)
+                .claim("name", code.email().substring(0, Math.max(1, code.email().indexOf('@'))));
+        if (code.nonce() != null) {
+            claims.claim("nonce", code.nonce());
+        }
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+                claims.build());
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private boolean isClient(String authorization) {
+        if (authorization == null || !authorization.startsWith("Basic ")) {
+            return false;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring(6)), StandardCharsets.UTF_8);
+            // client_secret_basic form-encodes id and secret; the stub's defaults need no decoding
+            return credentials.equals(clientId + ":" + clientSecret);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String encode(AuthorizationCode code) throws IOException {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(code));
+    }
+
+    private AuthorizationCode decode(String code) {
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(code), AuthorizationCode.class);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String error) {
+        return ResponseEntity.status(status).body(Map.of("error", error));
+    }
+
+    record AuthorizationCode(String email, String nonce, String redirectUri) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.auth_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived mapping from an OIDC identity (issuer and subject) to the local username it resolved to,
+ * so a repeated login skips the lookup-or-register step. The user itself is read through
+ * {@link UserDetailsCache}, which is evicted whenever the user row changes, so this cache never serves a
+ * stale user; the TTL only bounds how long a subject keeps resolving to the same username.
+ */
+@Component
+public class OidcSubjectCache {
+
+    private static final String CACHE_NAME = "oidcSubjects";
+
+    private final Cache<String, String> cache;
+
+    public OidcSubjectCache(@Value("${auth.oidc.subject-cache.max-size:10000}") long maxSize,
+                            @Value("${auth.oidc.subject-cache.ttl:10m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public String getUsername(OidcIdToken idToken) {
+        return cache.getIfPresent(key(idToken));
+    }
+
+    public void put(OidcIdToken idToken, String username) {
+        cache.put(key(idToken), username);
+    }
+
+    public void evict(OidcIdToken idToken) {
+        cache.invalidate(key(idToken));
+    }
+
+    private static String key(OidcIdToken idToken) {
+        // Subjects are only unique per issuer
+        return idToken.getIssuer() + " " + idToken.getSubject();
+    }
+}
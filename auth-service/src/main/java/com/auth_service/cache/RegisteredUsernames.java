@@ -0,0 +1,90 @@
+package com.auth_service.cache;
+
+import com.auth_service.repository.UserExportRepository;
+import com.auth_service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of every registered username, loaded at startup and extended as users are inserted
+ * (see {@link UserCacheEvictionListener}).
+ * <p>
+ * {@link #mightBeTaken} returning {@code false} means no user with that name existed when this instance
+ * last saw one, so registration can skip the existence check and go straight to the insert. Names added by
+ * other instances are not in the filter; for those the {@code uk_user_username} constraint still rejects
+ * the insert. Until the filter has been loaded every name is reported as possibly taken.
+ */
+@Component
+@Slf4j
+public class RegisteredUsernames {
+
+    private final UserExportRepository userExportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Counter definitelyFree;
+    private final Counter possiblyTaken;
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+
+    public RegisteredUsernames(UserExportRepository userExportRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${auth.username-filter.expected-users:1000000}") long expectedUsers,
+                               @Value("${auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        this.userExportRepository = userExportRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedUsers, falsePositiveRate);
+        this.definitelyFree = lookups(meterRegistry, "free");
+        this.possiblyTaken = lookups(meterRegistry, "possibly_taken");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            BloomFilter loading = BloomFilter.create(expectedUsers, falsePositiveRate);
+            AtomicLong count = new AtomicLong();
+            // Publish first so usernames inserted while loading land in the new filter as well
+            filter = loading;
+            readOnlyTransaction.executeWithoutResult(status -> userExportRepository.forEachUsername(username -> {
+                loading.put(username);
+                count.incrementAndGet();
+            }));
+            loaded = true;
+            log.info("Loaded {} registered usernames into the username filter", count.get());
+        } catch (DataAccessException e) {
+            log.error("Could not load the username filter, registrations will check the database: {}", e.getMessage());
+        }
+    }
+
+    public boolean mightBeTaken(String username) {
+        boolean maybe = !loaded || filter.mightContain(username);
+        (maybe ? possiblyTaken : definitelyFree).increment();
+        return maybe;
+    }
+
+    public void add(String username) {
+        filter.put(username);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.username.filter.lookups")
+                .description("Registration username checks answered by the username Bloom filter, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
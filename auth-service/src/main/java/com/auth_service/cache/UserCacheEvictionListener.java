@@ -0,0 +1,34 @@
+package com.auth_service.cache;
+
+import com.auth_service.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener that evicts a user's cached details whenever the row is updated (role, password, provider)
+ * or deleted, and records new usernames in {@link RegisteredUsernames}. Hibernate obtains it from the Spring
+ * context, so any code path that changes a user is covered.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final UserDetailsCache userDetailsCache;
+    // Looked up lazily: RegisteredUsernames needs the transaction manager, which needs the entity manager factory
+    private final ObjectProvider<RegisteredUsernames> registeredUsernames;
+
+    @PostPersist
+    public void registered(User user) {
+        registeredUsernames.getObject().add(user.getUsername());
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userDetailsCache.evict(user.getUsername());
+    }
+}
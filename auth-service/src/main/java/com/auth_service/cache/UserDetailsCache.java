@@ -0,0 +1,120 @@
+package com.auth_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of {@link UserDetails} by username, so JWT-authenticated requests
+ * only reach the database on a cold entry.
+ * <p>
+ * Entries are evicted whenever the user row changes (see {@link UserCacheEvictionListener}); the TTL
+ * bounds how long a change made outside this service can go unnoticed.
+ * <p>
+ * A miss is loaded on the caller's thread outside any map lock. Loading through {@code Cache.get(key, loader)}
+ * would hold a {@code ConcurrentHashMap} bin monitor across the JDBC call, which pins the carrier thread when
+ * requests run on virtual threads. Concurrent misses for one username still share a single load, tracked in
+ * {@link #loading}.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<UserDetails>> loading = new ConcurrentHashMap<>();
+
+    public UserDetailsCache(@Value("${auth.user-cache.max-size:10000}") long maxSize,
+                            @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the cached user, running {@code loader} only on a miss. Exceptions from the loader
+     * propagate and nothing is cached.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        UserDetails cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<UserDetails> load = new CompletableFuture<>();
+        CompletableFuture<UserDetails> inFlight = loading.putIfAbsent(username, load);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        try {
+            UserDetails userDetails = loader.apply(username);
+            // Cache only if no eviction ran during the load; evict() removes the in-flight entry first
+            loading.computeIfPresent(username, (key, current) -> {
+                if (current != load) {
+                    return current;
+                }
+                cache.put(key, userDetails);
+                return null;
+            });
+            load.complete(userDetails);
+            return userDetails;
+        } catch (RuntimeException | Error e) {
+            loading.remove(username, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the entry and any load in flight now and, inside a transaction, again after commit, so a request
+     * that reloads the user before the change is committed cannot leave the old state cached.
+     */
+    public void evict(String username) {
+        drop(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(username);
+                }
+            });
+        }
+        log.debug("Evicted cached user details for {}", username);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void drop(String username) {
+        loading.remove(username);
+        cache.invalidate(username);
+    }
+
+    private static UserDetails join(CompletableFuture<UserDetails> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // Requests that waited on a failed load see the loader's own exception
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.auth_service.auth.oauth2.OAuth2SuccessHandler;
 import com.auth_service.filter.JwtAuthFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +25,7 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(ServiceClientProperties.class)
 @RequiredArgsConstructor
 @Slf4j
 public class SecurityConfig {
@@ -39,7 +41,8 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/register", "/auth/login", "/login.html", "/actuator/**").permitAll()
+                        .requestMatchers("/actuator/loginattempts/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/auth/register", "/auth/login", "/auth/refresh", "/auth/logout", "/auth/token", "/login.html", "/actuator/**").permitAll()
                         .anyRequest().permitAll()
                 )
                 .exceptionHandling(ex -> ex
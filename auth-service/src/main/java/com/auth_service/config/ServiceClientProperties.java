@@ -0,0 +1,35 @@
+package com.auth_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service clients allowed to obtain tokens through the client credentials grant, configured under
+ * {@code auth.service-tokens.*}, e.g. {@code auth.service-tokens.clients.order-service.secret-hash}.
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.service-tokens")
+public class ServiceClientProperties {
+
+    /**
+     * Lifetime of an issued service token.
+     */
+    private Duration ttl = Duration.ofMinutes(15);
+
+    /**
+     * Registered clients by client id.
+     */
+    private Map<String, Client> clients = new LinkedHashMap<>();
+
+    @Data
+    public static class Client {
+        /**
+         * BCrypt hash of the client secret; the secret itself is never stored.
+         */
+        private String secretHash;
+    }
+}
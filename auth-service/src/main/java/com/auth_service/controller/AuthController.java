@@ -1,22 +1,35 @@
 package com.auth_service.controller;
 
 import com.auth_service.dto.request.CreateUserRequestDTO;
+import com.auth_service.dto.request.RefreshTokenRequestDTO;
 import com.auth_service.dto.response.ApiResponseDTO;
 import com.auth_service.dto.response.JwtResponseDTO;
+import com.auth_service.dto.response.ServiceTokenResponseDTO;
+import com.auth_service.exception.InvalidClientException;
 import com.auth_service.dto.response.UserSummaryDTO;
 import com.auth_service.model.User;
+import com.auth_service.security.LoginAttemptGuard;
+import com.auth_service.service.RefreshTokenService;
+import com.auth_service.service.ServiceTokenService;
 import com.auth_service.service.UserService;
-import com.auth_service.util.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -24,7 +37,9 @@ public class AuthController {
 
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptGuard loginAttemptGuard;
+    private final ServiceTokenService serviceTokenService;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponseDTO<String>> registerUser(@Valid @RequestBody CreateUserRequestDTO request) {
@@ -40,28 +55,73 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponseDTO<JwtResponseDTO>> loginUser(@Valid @RequestBody CreateUserRequestDTO request) {
+    public ResponseEntity<ApiResponseDTO<JwtResponseDTO>> loginUser(@Valid @RequestBody CreateUserRequestDTO request,
+                                                                    HttpServletRequest httpRequest) {
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
+        // Refuse throttled usernames and clients before any password hash is computed
+        String clientAddress = LoginAttemptGuard.clientAddress(httpRequest);
+        loginAttemptGuard.checkAllowed(request.getUsername(), clientAddress);
 
-        User user = (User) authentication.getPrincipal();
-        String token = jwtUtil.generateToken(user.getId().toString(),user.getUsername(),user.getRole().name());
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptGuard.loginFailed();
+            throw e;
+        } catch (RuntimeException e) {
+            loginAttemptGuard.loginAbandoned(request.getUsername(), clientAddress);
+            throw e;
+        }
+        loginAttemptGuard.loginSucceeded(request.getUsername(), clientAddress);
 
-        JwtResponseDTO response = JwtResponseDTO.builder()
-                .token(token)
-                .tokenType("Bearer")
-                .username(user.getUsername())
-                .id(user.getId().toString())
-                .role(user.getRole())
-                .build();
+        User user = (User) authentication.getPrincipal();
+        JwtResponseDTO response = refreshTokenService.issueTokens(user);
 
-        return token != null
+        return response.getToken() != null
                 ? ResponseEntity.ok(ApiResponseDTO.success("Login successful", response))
                 : ResponseEntity.status(401).body(ApiResponseDTO.error("Invalid credentials", 401));
+    }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponseDTO<JwtResponseDTO>> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        JwtResponseDTO response = refreshTokenService.refresh(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponseDTO.success("Token refreshed", response));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponseDTO<String>> logout(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponseDTO.success("Logged out", null));
+    }
+
+    /**
+     * Client credentials grant for internal services. Credentials go in an HTTP Basic header, or as
+     * {@code client_id} and {@code client_secret} form fields.
+     */
+    @PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<ApiResponseDTO<ServiceTokenResponseDTO>> serviceToken(
+            @RequestParam("grant_type") String grantType,
+            @RequestParam(value = "client_id", required = false) String clientId,
+            @RequestParam(value = "client_secret", required = false) String clientSecret,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!"client_credentials".equals(grantType)) {
+            return ResponseEntity.badRequest().body(ApiResponseDTO.error("Unsupported grant type", 400));
+        }
+
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            String[] credentials = basicCredentials(authorization.substring(6));
+            clientId = credentials[0];
+            clientSecret = credentials[1];
+        }
+
+        ServiceTokenResponseDTO response = serviceTokenService.issueToken(clientId, clientSecret);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(ApiResponseDTO.success("Token issued", response));
+    }
+
     @GetMapping("/user/me")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponseDTO<UserSummaryDTO>> getCurrentUser() {
@@ -70,4 +130,22 @@ public class AuthController {
                 ? ResponseEntity.ok(ApiResponseDTO.success("Current user retrieved", currentUser))
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponseDTO.error("User not found", 404));
     }
-}
\ No newline at end of file
+
+    private static String[] basicCredentials(String encoded) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidClientException("Malformed Basic credentials");
+        }
+        int colon = decoded.indexOf(':');
+        if (colon < 0) {
+            throw new InvalidClientException("Malformed Basic credentials");
+        }
+        // RFC 6749 2.3.1: id and secret are form-encoded before they are joined
+        return new String[]{
+                URLDecoder.decode(decoded.substring(0, colon), StandardCharsets.UTF_8),
+                URLDecoder.decode(decoded.substring(colon + 1), StandardCharsets.UTF_8)
+        };
+    }
+}
@@ -1,17 +1,19 @@
 package com.auth_service.controller;
 
 import com.auth_service.dto.response.ApiResponseDTO;
+import com.auth_service.dto.response.CursorPageDTO;
 import com.auth_service.dto.response.UserResponseDTO;
 import com.auth_service.dto.response.UserSummaryDTO;
 import com.auth_service.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,11 +23,22 @@ public class UserController {
 
     @GetMapping("/admin/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponseDTO<List<UserResponseDTO>>> getAllUsers() {
-        List<UserResponseDTO> users = userService.getAllUsers();
+    public ResponseEntity<ApiResponseDTO<CursorPageDTO<UserResponseDTO>>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPageDTO<UserResponseDTO> users = userService.getUsers(cursor, size);
         return users != null
-                ? ResponseEntity.ok(ApiResponseDTO.success("Fetched all users", users))
+                ? ResponseEntity.ok(ApiResponseDTO.success("Fetched users", users))
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponseDTO.error("Developer not found", 404));
     }
 
+    @GetMapping(value = "/admin/users/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.auth_service.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request DTO carrying a refresh token")
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "Refresh token is required")
+    @Schema(description = "Refresh token returned by login or a previous refresh", example = "eyJhbGciOiJIUzI1NiIsIn...")
+    private String refreshToken;
+}
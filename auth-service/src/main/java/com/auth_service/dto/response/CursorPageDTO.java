@@ -0,0 +1,26 @@
+package com.auth_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "One page of a keyset-paginated listing")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Items on this page, in listing order")
+    private List<T> items;
+
+    @Schema(description = "Opaque cursor for the next page, absent on the last page", example = "MjAyNS0wNy0wMVQxMDoxNTozMC4xMjM0NTYsNTUwZTg0MDAtZTI5Yi00MWQ0LWE3MTYtNDQ2NjU1NDQwMDAw")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page follows")
+    private boolean hasNext;
+}
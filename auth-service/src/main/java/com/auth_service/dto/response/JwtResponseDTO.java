@@ -17,6 +17,9 @@ public class JwtResponseDTO {
     @Schema(description = "JWT access token", example = "eyJhbGciOiJIUzI1NiIsIn...")
     private String token;
 
+    @Schema(description = "Single-use refresh token, exchanged at /auth/refresh for a new token pair", example = "eyJhbGciOiJIUzI1NiIsIn...")
+    private String refreshToken;
+
     @Schema(description = "Token type (usually 'Bearer')", example = "Bearer")
     private String tokenType;
 
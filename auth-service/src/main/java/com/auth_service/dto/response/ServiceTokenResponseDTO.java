@@ -0,0 +1,24 @@
+package com.auth_service.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Response DTO containing a service token from the client credentials grant")
+public class ServiceTokenResponseDTO {
+
+    @Schema(description = "JWT access token identifying the calling service", example = "eyJhbGciOiJIUzI1NiIsIn...")
+    private String accessToken;
+
+    @Schema(description = "Token type (usually 'Bearer')", example = "Bearer")
+    private String tokenType;
+
+    @Schema(description = "Seconds until the token expires", example = "900")
+    private long expiresIn;
+}
@@ -0,0 +1,11 @@
+package com.auth_service.exception;
+
+/**
+ * Exception thrown when a service client is unknown or presents the wrong secret
+ */
+public class InvalidClientException extends AuthException {
+
+    public InvalidClientException(String message) {
+        super(message);
+    }
+}
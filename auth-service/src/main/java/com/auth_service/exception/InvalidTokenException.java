@@ -0,0 +1,15 @@
+package com.auth_service.exception;
+
+/**
+ * Exception thrown when a refresh token is malformed, expired, revoked or no longer matches its user
+ */
+public class InvalidTokenException extends AuthException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.auth_service.exception;
+
+/**
+ * Exception thrown when a bounded resource, such as the password-hashing pool, cannot take more work
+ */
+public class ServiceBusyException extends AuthException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.auth_service.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a username or client has failed to log in too often within the guard's window
+ */
+@Getter
+public class TooManyLoginAttemptsException extends AuthException {
+
+    private final Duration retryAfter;
+
+    public TooManyLoginAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,13 +1,18 @@
 package com.auth_service.filter;
 
+import com.auth_service.cache.UserDetailsCache;
 import com.auth_service.service.UserService;
 import com.auth_service.util.JwtUtil;
+import com.jwt_codec.InvalidJwtException;
+import com.jwt_codec.JwtClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,13 +20,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -50,26 +58,47 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         // Rest of your existing JWT validation logic...
-        String token = null;
-        String username = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtUtil.extractUsernameFromToken(token);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            authenticate(request, authHeader.substring(7));
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
+        filterChain.doFilter(request, response);
 
-            if (jwtUtil.validateToken(username, userDetails, token)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+    }
+
+    private void authenticate(HttpServletRequest request, String token) {
+        // One parse yields every claim and checks signature and expiry together
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (InvalidJwtException e) {
+            log.debug("Rejected JWT for {}: {}", request.getRequestURI(), e.getMessage());
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        String username = claims.subject();
+        if (username == null) {
+            return;
+        }
+
+        if (JwtUtil.SERVICE_ROLE.equals(claims.roles())) {
+            // Service clients have no user row; the verified token is the whole identity
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    username, null, List.of(new SimpleGrantedAuthority(JwtUtil.SERVICE_ROLE)));
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            return;
+        }
 
+        UserDetails userDetails = userDetailsCache.get(username, userService::loadUserByUsername);
+
+        if (jwtUtil.validateToken(claims, userDetails)) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
     }
 }
 
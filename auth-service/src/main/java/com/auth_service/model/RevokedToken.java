@@ -0,0 +1,33 @@
+package com.auth_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A revoked refresh token, or a whole refresh-token family, kept until every token it covers has expired.
+ */
+@Entity
+@Table(name = "revoked_tokens",
+        indexes = {
+                @Index(columnList = "revoked_at", name = "idx_revoked_tokens_revoked_at")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id", updatable = false, nullable = false)
+    private UUID tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -1,5 +1,6 @@
 package com.auth_service.model;
 
+import com.auth_service.cache.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -18,9 +19,13 @@ import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 @Entity
+@EntityListeners(UserCacheEvictionListener.class)
 @Table(name = "users",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "username", name = "uk_user_username")
+        },
+        indexes = {
+                @Index(columnList = "created_date, id", name = "idx_users_created_date_id")
         })
 @Data
 @NoArgsConstructor
@@ -37,12 +42,16 @@ public class User implements UserDetails {
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String username;
 
 
     private String password;
 
+    // Bumped only when the password itself changes, not when the same password is rehashed
+    @Column(name = "password_version", nullable = false, columnDefinition = "integer default 0")
+    private int passwordVersion;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ERole role;
@@ -66,6 +75,14 @@ public class User implements UserDetails {
         this.authProvider = authProvider;
     }
 
+    /**
+     * Replaces the password with a new one, which invalidates refresh tokens issued for the old one.
+     */
+    public void changePassword(String encodedPassword) {
+        this.password = encodedPassword;
+        this.passwordVersion++;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(getRole().name()));
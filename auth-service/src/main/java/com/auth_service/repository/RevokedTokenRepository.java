@@ -0,0 +1,40 @@
+package com.auth_service.repository;
+
+import com.auth_service.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    /**
+     * Inserts the row unless it exists and returns the number of rows inserted, so two requests racing to
+     * revoke the same token learn which one got there first.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) " +
+            "VALUES (:tokenId, :expiresAt, :revokedAt) ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") UUID tokenId,
+                       @Param("expiresAt") Instant expiresAt,
+                       @Param("revokedAt") Instant revokedAt);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<UUID> findActiveTokenIds(@Param("now") Instant now);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.revokedAt >= :since")
+    List<UUID> findTokenIdsRevokedSince(@Param("since") Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,62 @@
+package com.auth_service.repository;
+
+import com.auth_service.dto.response.UserResponseDTO;
+import com.auth_service.model.EAuthProvider;
+import com.auth_service.model.ERole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads every user, or every username, through a forward-only JDBC cursor, bypassing the persistence context so nothing
+ * accumulates per row. PostgreSQL only honours the fetch size inside a transaction, so callers must hold one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserExportRepository {
+
+    private static final String SELECT_ALL = "SELECT id, username, role, auth_provider, created_date, updated_date " +
+            "FROM users ORDER BY created_date, id";
+
+    private static final String SELECT_USERNAMES = "SELECT username FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${auth.admin.export-fetch-size:500}")
+    private int fetchSize;
+
+    public void forEachUser(Consumer<UserResponseDTO> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            action.accept(UserResponseDTO.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .username(rs.getString("username"))
+                    .role(ERole.valueOf(rs.getString("role")))
+                    .authProvider(EAuthProvider.valueOf(rs.getString("auth_provider")))
+                    .createdDate(rs.getTimestamp("created_date").toLocalDateTime())
+                    .updatedDate(rs.getTimestamp("updated_date").toLocalDateTime())
+                    .build());
+        });
+    }
+
+    public void forEachUsername(Consumer<String> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_USERNAMES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            action.accept(rs.getString(1));
+        });
+    }
+}
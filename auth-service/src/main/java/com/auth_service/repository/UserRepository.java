@@ -3,8 +3,10 @@ package com.auth_service.repository;
 import com.auth_service.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +18,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     boolean existsByUsername(String email);
 
-    @Query("SELECT u FROM User u")
-    List<User> findAllUserDetails();
+    @Query(value = "SELECT * FROM users ORDER BY created_date, id LIMIT :limit", nativeQuery = true)
+    List<User> findFirstPage(@Param("limit") int limit);
+
+    /**
+     * Keyset page after {@code (createdDate, id)}. The row-value comparison lets PostgreSQL seek straight
+     * into {@code idx_users_created_date_id}, however deep the page.
+     */
+    @Query(value = "SELECT * FROM users WHERE (created_date, id) > (:createdDate, :id) " +
+            "ORDER BY created_date, id LIMIT :limit", nativeQuery = true)
+    List<User> findPageAfter(@Param("createdDate") LocalDateTime createdDate,
+                             @Param("id") UUID id,
+                             @Param("limit") int limit);
 }
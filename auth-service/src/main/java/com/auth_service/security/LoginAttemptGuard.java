@@ -0,0 +1,207 @@
+package com.auth_service.security;
+
+import com.auth_service.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Throttles password logins by counting attempts per username and per client address over a sliding
+ * window. {@link #checkAllowed} runs before the password is checked and reserves the attempt in the same
+ * step as it checks the threshold, so concurrent guesses cannot all pass the check before any of them is
+ * counted, and a username or client over its threshold is turned away without paying for a BCrypt
+ * comparison. The reservation stands if the password is wrong and is handed back otherwise.
+ * <p>
+ * A successful login clears the username's failures but only refunds its own attempt to the client, so
+ * one valid account cannot be used to reset the budget for guessing others.
+ */
+@Component
+@Slf4j
+public class LoginAttemptGuard {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxUsernameFailures;
+    private final int maxClientFailures;
+    private final SlidingWindowCounters usernames;
+    private final SlidingWindowCounters clients;
+    private final LongSupplier clock;
+
+    private final Counter usernameBlocked;
+    private final Counter clientBlocked;
+    private final Counter failures;
+
+    @Autowired
+    public LoginAttemptGuard(@Value("${auth.login-guard.enabled:true}") boolean enabled,
+                             @Value("${auth.login-guard.window:15m}") Duration window,
+                             @Value("${auth.login-guard.max-failures-per-username:5}") int maxUsernameFailures,
+                             @Value("${auth.login-guard.max-failures-per-client:20}") int maxClientFailures,
+                             @Value("${auth.login-guard.max-tracked-keys:65536}") int maxTrackedKeys,
+                             MeterRegistry meterRegistry) {
+        this(enabled, window, maxUsernameFailures, maxClientFailures, maxTrackedKeys, meterRegistry, System::nanoTime);
+    }
+
+    LoginAttemptGuard(boolean enabled, Duration window, int maxUsernameFailures, int maxClientFailures,
+                      int maxTrackedKeys, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = enabled;
+        this.window = window;
+        this.maxUsernameFailures = maxUsernameFailures;
+        this.maxClientFailures = maxClientFailures;
+        int stripes = Math.max(1, Runtime.getRuntime().availableProcessors() * 4);
+        this.usernames = new SlidingWindowCounters(window, stripes, Math.max(1, maxTrackedKeys / stripes));
+        this.clients = new SlidingWindowCounters(window, stripes, Math.max(1, maxTrackedKeys / stripes));
+        this.clock = clock;
+
+        this.usernameBlocked = blocked(meterRegistry, "username");
+        this.clientBlocked = blocked(meterRegistry, "client");
+        this.failures = Counter.builder("auth.login.failures")
+                .description("Password logins rejected for bad credentials")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.tracked", usernames, SlidingWindowCounters::size)
+                .description("Keys with recent login failures")
+                .tag("scope", "username")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.tracked", clients, SlidingWindowCounters::size)
+                .description("Keys with recent login failures")
+                .tag("scope", "client")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves a login attempt against the username and the client address, or throws
+     * {@link TooManyLoginAttemptsException} without reserving anything if either has reached its failure
+     * threshold. Every allowed attempt must end in {@link #loginFailed}, {@link #loginSucceeded} or
+     * {@link #loginAbandoned}.
+     */
+    public void checkAllowed(String username, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        String user = normalize(username);
+
+        if (!clients.tryIncrement(clientAddress, maxClientFailures, now)) {
+            clientBlocked.increment();
+            log.warn("Login blocked for client {} after repeated failures", clientAddress);
+            throw new TooManyLoginAttemptsException("Too many failed login attempts, try again later",
+                    clients.timeUntilBelow(clientAddress, maxClientFailures, now));
+        }
+        if (!usernames.tryIncrement(user, maxUsernameFailures, now)) {
+            clients.decrement(clientAddress, now);
+            usernameBlocked.increment();
+            log.warn("Login blocked for user {} after repeated failures", user);
+            throw new TooManyLoginAttemptsException("Too many failed login attempts, try again later",
+                    usernames.timeUntilBelow(user, maxUsernameFailures, now));
+        }
+    }
+
+    /**
+     * Keeps the attempt reserved by {@link #checkAllowed} as a failure.
+     */
+    public void loginFailed() {
+        failures.increment();
+    }
+
+    public void loginSucceeded(String username, String clientAddress) {
+        if (enabled) {
+            usernames.reset(normalize(username));
+            clients.decrement(clientAddress, clock.getAsLong());
+        }
+    }
+
+    /**
+     * Hands back the attempt reserved by {@link #checkAllowed} when the login ended without the password
+     * being judged, for example because the server was too busy to hash it.
+     */
+    public void loginAbandoned(String username, String clientAddress) {
+        if (enabled) {
+            long now = clock.getAsLong();
+            usernames.decrement(normalize(username), now);
+            clients.decrement(clientAddress, now);
+        }
+    }
+
+    /**
+     * Clears the failures recorded for {@code key}, whether it is a username or a client address.
+     */
+    public void unlock(String key) {
+        usernames.reset(normalize(key));
+        clients.reset(key);
+        log.info("Cleared login failures for {}", key);
+    }
+
+    public LoginAttempts attempts() {
+        long now = clock.getAsLong();
+        return new LoginAttempts(enabled, window.toString(), maxUsernameFailures, maxClientFailures,
+                counts(usernames, maxUsernameFailures, now), counts(clients, maxClientFailures, now));
+    }
+
+    /**
+     * Resolves the address a login came from. Behind the gateway every request arrives from the gateway,
+     * so {@code X-Forwarded-For} is used, but only when the direct peer is on a private network: the last
+     * entry is the one the gateway appended, and anything before it is client-supplied.
+     */
+    public static String clientAddress(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        String forwarded = request.getHeader(FORWARDED_FOR);
+        if (forwarded == null || forwarded.isBlank() || !isInternal(remote)) {
+            return remote;
+        }
+        String last = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+        return last.isEmpty() ? remote : last;
+    }
+
+    private static boolean isInternal(String address) {
+        try {
+            // Servlet remote addresses are IP literals, so this never goes to DNS
+            InetAddress inet = InetAddress.getByName(address);
+            return inet.isLoopbackAddress() || inet.isSiteLocalAddress() || inet.isLinkLocalAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, AttemptCount> counts(SlidingWindowCounters counters, int limit, long now) {
+        Map<String, AttemptCount> counts = new TreeMap<>();
+        counters.snapshot(now).forEach((key, failures) -> {
+            boolean locked = failures >= limit;
+            long retryAfter = locked ? counters.timeUntilBelow(key, limit, now).toSeconds() : 0;
+            counts.put(key, new AttemptCount(Math.round(failures * 100) / 100.0, locked, retryAfter));
+        });
+        return counts;
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter blocked(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.login.blocked")
+                .description("Password logins refused before the password check because of earlier failures")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    public record AttemptCount(double failures, boolean locked, long retryAfterSeconds) {
+    }
+
+    public record LoginAttempts(boolean enabled, String window, int maxFailuresPerUsername,
+                                int maxFailuresPerClient, Map<String, AttemptCount> usernames,
+                                Map<String, AttemptCount> clients) {
+    }
+}
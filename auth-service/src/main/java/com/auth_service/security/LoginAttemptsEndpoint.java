@@ -0,0 +1,30 @@
+package com.auth_service.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the login failure counters at {@code /actuator/loginattempts}. A {@code DELETE} on
+ * {@code /actuator/loginattempts/{key}} clears a locked-out username or client address.
+ */
+@Component
+@Endpoint(id = "loginattempts")
+@RequiredArgsConstructor
+public class LoginAttemptsEndpoint {
+
+    private final LoginAttemptGuard loginAttemptGuard;
+
+    @ReadOperation
+    public LoginAttemptGuard.LoginAttempts loginAttempts() {
+        return loginAttemptGuard.attempts();
+    }
+
+    @DeleteOperation
+    public void unlock(@Selector String key) {
+        loginAttemptGuard.unlock(key);
+    }
+}
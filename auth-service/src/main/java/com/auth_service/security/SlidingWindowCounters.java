@@ -0,0 +1,279 @@
+package com.auth_service.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-key event counts over a sliding window, approximated from two adjacent fixed windows: the
+ * previous window's count is weighted by how much of it still overlaps the sliding window. Each key
+ * costs one small object, whatever the traffic.
+ * <p>
+ * Keys are spread over lock-protected stripes, so unrelated keys rarely contend. A key whose count has
+ * decayed to zero is treated as absent and removed when its stripe fills up; if a stripe is still full
+ * after that sweep, the key with the lowest count is dropped. Times are {@link System#nanoTime()} values.
+ */
+public class SlidingWindowCounters {
+
+    private final long windowNanos;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes;
+
+    public SlidingWindowCounters(Duration window, int stripes, int maxKeysPerStripe) {
+        if (window.isZero() || window.isNegative()) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.windowNanos = window.toNanos();
+        this.maxKeysPerStripe = Math.max(1, maxKeysPerStripe);
+
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Records one event for {@code key} and returns the updated count.
+     */
+    public double increment(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                if (stripe.windows.size() >= maxKeysPerStripe) {
+                    stripe.makeRoom(now);
+                }
+                window = new Window(now);
+                stripe.windows.put(key, window);
+            }
+            window.roll(now, windowNanos);
+            window.current++;
+            return window.estimate(now, windowNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Records one event for {@code key} only if its count is below {@code limit}, checking and recording
+     * under the same lock so concurrent callers cannot all slip in under the limit.
+     *
+     * @return whether the event was recorded
+     */
+    public boolean tryIncrement(String key, double limit, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window != null) {
+                window.roll(now, windowNanos);
+                if (window.estimate(now, windowNanos) >= limit) {
+                    return false;
+                }
+            } else {
+                if (limit <= 0) {
+                    return false;
+                }
+                if (stripe.windows.size() >= maxKeysPerStripe) {
+                    stripe.makeRoom(now);
+                }
+                window = new Window(now);
+                stripe.windows.put(key, window);
+            }
+            window.current++;
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes back one event recorded for {@code key}, from the previous window if the current one is
+     * already empty because the event was recorded just before the window rolled.
+     */
+    public void decrement(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                return;
+            }
+            window.roll(now, windowNanos);
+            if (window.current > 0) {
+                window.current--;
+            } else if (window.previous > 0) {
+                window.previous--;
+            }
+            if (window.isEmpty()) {
+                stripe.windows.remove(key);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public double count(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                return 0;
+            }
+            window.roll(now, windowNanos);
+            return window.estimate(now, windowNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how long until the count for {@code key} drops below {@code limit}, or zero if it already is.
+     */
+    public Duration timeUntilBelow(String key, double limit, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                return Duration.ZERO;
+            }
+            window.roll(now, windowNanos);
+            return Duration.ofNanos(window.nanosUntilBelow(limit, now, windowNanos));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void reset(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns every key with a non-zero count, sorted by key, dropping expired keys along the way.
+     */
+    public Map<String, Double> snapshot(long now) {
+        Map<String, Double> counts = new TreeMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.sweep(now);
+                stripe.windows.forEach((key, window) -> counts.put(key, window.estimate(now, windowNanos)));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return counts;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.windows.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final HashMap<String, Window> windows = new HashMap<>();
+
+        private void sweep(long now) {
+            windows.values().removeIf(window -> {
+                window.roll(now, windowNanos);
+                return window.isEmpty();
+            });
+        }
+
+        private void makeRoom(long now) {
+            sweep(now);
+            if (windows.size() < maxKeysPerStripe) {
+                return;
+            }
+            String quietest = null;
+            double lowest = Double.MAX_VALUE;
+            for (Map.Entry<String, Window> entry : windows.entrySet()) {
+                double estimate = entry.getValue().estimate(now, windowNanos);
+                if (estimate < lowest) {
+                    lowest = estimate;
+                    quietest = entry.getKey();
+                }
+            }
+            windows.remove(quietest);
+        }
+    }
+
+    private static final class Window {
+
+        private long start;
+        private int previous;
+        private int current;
+
+        private Window(long start) {
+            this.start = start;
+        }
+
+        private void roll(long now, long windowNanos) {
+            long elapsed = now - start;
+            if (elapsed < windowNanos) {
+                return;
+            }
+            if (elapsed < 2 * windowNanos) {
+                previous = current;
+                start += windowNanos;
+            } else {
+                previous = 0;
+                start = now;
+            }
+            current = 0;
+        }
+
+        private boolean isEmpty() {
+            return previous == 0 && current == 0;
+        }
+
+        private double estimate(long now, long windowNanos) {
+            double overlap = 1.0 - (double) (now - start) / windowNanos;
+            return previous * overlap + current;
+        }
+
+        private long nanosUntilBelow(double limit, long now, long windowNanos) {
+            if (estimate(now, windowNanos) < limit) {
+                return 0;
+            }
+            if (current < limit) {
+                // The previous window's share decays below the gap left by this window's count
+                double fraction = 1.0 - (limit - current) / previous;
+                return Math.max(1, start + (long) Math.ceil(fraction * windowNanos) - now);
+            }
+            // This window's count only starts decaying once it becomes the previous window
+            double fraction = 1.0 - limit / current;
+            return start + windowNanos + (long) Math.ceil(fraction * windowNanos) - now;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.auth_service.security;
+
+import com.auth_service.repository.RevokedTokenRepository;
+import com.auth_service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Revoked refresh-token ids, persisted in {@code revoked_tokens} and mirrored in an in-memory
+ * {@link BloomFilter}. A lookup only reaches the database when the filter reports a possible match, which
+ * for tokens that were never revoked happens at the filter's false-positive rate.
+ * <p>
+ * Revocations made by other instances are picked up by a periodic sync, so they take effect here within one
+ * sync interval. Until the filter has been loaded every lookup goes to the database. The filter is rebuilt
+ * from the table periodically, after expired rows have been purged.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    // Tolerates clock differences between instances writing revoked_at
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final RevokedTokenRepository repository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Counter databaseLookups;
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+    private volatile Instant syncedUntil = Instant.EPOCH;
+
+    public TokenRevocationList(RevokedTokenRepository repository,
+                               @Value("${auth.revocation.expected-entries:100000}") long expectedEntries,
+                               @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+        this.databaseLookups = Counter.builder("auth.revocation.database.lookups")
+                .description("Revocation checks the Bloom filter could not answer on its own")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(UUID tokenId) {
+        if (loaded && !filter.mightContain(tokenId)) {
+            return false;
+        }
+        databaseLookups.increment();
+        return repository.existsById(tokenId);
+    }
+
+    /**
+     * Revokes {@code tokenId} until {@code expiresAt}. Returns {@code false} if it was already revoked.
+     */
+    public boolean revoke(UUID tokenId, Instant expiresAt) {
+        boolean inserted = repository.insertIfAbsent(tokenId, expiresAt, Instant.now()) == 1;
+        filter.put(tokenId);
+        return inserted;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:1h}",
+            initialDelayString = "${auth.revocation.rebuild-interval:1h}")
+    public void rebuild() {
+        try {
+            Instant now = Instant.now();
+            int purged = repository.deleteExpired(now);
+            List<UUID> active = repository.findActiveTokenIds(now);
+
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedEntries, active.size() * 2L), falsePositiveRate);
+            active.forEach(rebuilt::put);
+            filter = rebuilt;
+            loaded = true;
+
+            // Catch revocations written while the table was being read
+            syncSince(now);
+            log.info("Rebuilt token revocation filter with {} entries, purged {} expired", active.size(), purged);
+        } catch (DataAccessException e) {
+            log.error("Could not rebuild token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:30s}",
+            initialDelayString = "${auth.revocation.sync-interval:30s}")
+    public void sync() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            syncSince(syncedUntil);
+        } catch (DataAccessException e) {
+            log.warn("Could not sync token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    private void syncSince(Instant since) {
+        Instant now = Instant.now();
+        BloomFilter current = filter;
+        repository.findTokenIdsRevokedSince(since.minus(SYNC_OVERLAP)).forEach(current::put);
+        syncedUntil = now;
+    }
+}
@@ -0,0 +1,14 @@
+package com.auth_service.service;
+
+import com.auth_service.dto.response.JwtResponseDTO;
+import com.auth_service.model.User;
+
+public interface RefreshTokenService {
+
+    JwtResponseDTO issueTokens(User user); // after a password or OAuth2 login
+
+    JwtResponseDTO refresh(String refreshToken); // rotates the refresh token
+
+    void revoke(String refreshToken); // logout: ends the token's whole family
+
+}
@@ -0,0 +1,9 @@
+package com.auth_service.service;
+
+import com.auth_service.dto.response.ServiceTokenResponseDTO;
+
+public interface ServiceTokenService {
+
+    ServiceTokenResponseDTO issueToken(String clientId, String clientSecret); // client credentials grant
+
+}
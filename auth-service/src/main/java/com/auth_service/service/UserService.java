@@ -1,17 +1,21 @@
 package com.auth_service.service;
 
 import com.auth_service.auth.oauth2.OAuth2UserInfo;
+import com.auth_service.dto.response.CursorPageDTO;
 import com.auth_service.dto.response.UserResponseDTO;
 import com.auth_service.dto.response.UserSummaryDTO;
 import com.auth_service.model.User;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-import java.util.List;
-import java.util.UUID;
+import java.io.IOException;
+import java.io.OutputStream;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 
-    List<UserResponseDTO> getAllUsers();
+    CursorPageDTO<UserResponseDTO> getUsers(String cursor, int size); // keyset page after cursor
+
+    void exportUsers(OutputStream out) throws IOException; // every user as NDJSON
 
     User createUser(User user); // for local registration
 
@@ -0,0 +1,134 @@
+package com.auth_service.service.impl;
+
+import com.auth_service.cache.UserDetailsCache;
+import com.auth_service.dto.response.JwtResponseDTO;
+import com.auth_service.exception.InvalidTokenException;
+import com.auth_service.model.User;
+import com.auth_service.security.TokenRevocationList;
+import com.auth_service.service.RefreshTokenService;
+import com.auth_service.service.UserService;
+import com.auth_service.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens.
+ * <p>
+ * Each login starts a token family. A refresh revokes the presented token and returns a new pair in the same
+ * family; presenting an already rotated token again means it was copied, so the whole family is revoked.
+ * Tokens carry the user's password version, so a password change invalidates them without a revocation row.
+ * Rehashing the same password with a new BCrypt cost keeps the version, and with it the user's other sessions. The user is read through {@link UserDetailsCache} and revocation through
+ * {@link TokenRevocationList}, so a valid refresh does not read from the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private final JwtUtil jwtUtil;
+    private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.refresh-expiration:7d}")
+    private Duration refreshExpiration;
+
+    @Override
+    public JwtResponseDTO issueTokens(User user) {
+        return tokensFor(user, UUID.randomUUID());
+    }
+
+    @Override
+    public JwtResponseDTO refresh(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        UUID tokenId = uuid(claims.getId());
+        UUID familyId = uuid(claims.get(JwtUtil.FAMILY_CLAIM, String.class));
+
+        if (revocationList.isRevoked(familyId)) {
+            throw new InvalidTokenException("Refresh token has been revoked");
+        }
+
+        User user = loadUser(claims.getSubject());
+        if (!credentialFingerprint(user).equals(claims.get(JwtUtil.CREDENTIAL_CLAIM, String.class))) {
+            throw new InvalidTokenException("Refresh token was issued before the password changed");
+        }
+
+        // Claiming the old token atomically settles concurrent refreshes: only the first one gets a new pair
+        if (!revocationList.revoke(tokenId, claims.getExpiration().toInstant())) {
+            log.warn("Refresh token reuse detected for user {}, revoking token family {}", user.getId(), familyId);
+            revocationList.revoke(familyId, familyExpiry());
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+
+        return tokensFor(user, familyId);
+    }
+
+    @Override
+    public void revoke(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        UUID familyId = uuid(claims.get(JwtUtil.FAMILY_CLAIM, String.class));
+        revocationList.revoke(familyId, familyExpiry());
+        log.info("Revoked refresh token family {} for {}", familyId, claims.getSubject());
+    }
+
+    private JwtResponseDTO tokensFor(User user, UUID familyId) {
+        String id = user.getId().toString();
+        String token = jwtUtil.generateToken(id, user.getUsername(), user.getRole().name());
+        String refreshToken = jwtUtil.generateRefreshToken(id, user.getUsername(), familyId,
+                credentialFingerprint(user));
+
+        return JwtResponseDTO.builder()
+                .token(token)
+                .refreshToken(refreshToken)
+                .tokenType("Bearer")
+                .username(user.getUsername())
+                .id(id)
+                .role(user.getRole())
+                .build();
+    }
+
+    private Claims parse(String refreshToken) {
+        try {
+            return jwtUtil.parseRefreshClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid or expired refresh token", e);
+        }
+    }
+
+    private User loadUser(String username) {
+        try {
+            return (User) userDetailsCache.get(username, userService::loadUserByUsername);
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidTokenException("Refresh token user no longer exists", e);
+        }
+    }
+
+    // Tokens rotated within the family before now expire at the latest one refresh lifetime from now
+    private Instant familyExpiry() {
+        return Instant.now().plus(refreshExpiration);
+    }
+
+    private static UUID uuid(String value) {
+        if (value == null) {
+            throw new InvalidTokenException("Invalid or expired refresh token");
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid or expired refresh token", e);
+        }
+    }
+
+    static String credentialFingerprint(User user) {
+        return Integer.toString(user.getPasswordVersion());
+    }
+}
@@ -0,0 +1,57 @@
+package com.auth_service.service.impl;
+
+import com.auth_service.config.ServiceClientProperties;
+import com.auth_service.dto.response.ServiceTokenResponseDTO;
+import com.auth_service.exception.InvalidClientException;
+import com.auth_service.service.ServiceTokenService;
+import com.auth_service.util.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Issues service tokens to the clients registered in {@link ServiceClientProperties}.
+ * <p>
+ * Callers are expected to cache a token until shortly before it expires, so a healthy deployment sees one
+ * issuance per client per token lifetime; {@code auth.service-tokens.issued} makes that visible per client.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceTokenServiceImpl implements ServiceTokenService {
+
+    private final ServiceClientProperties properties;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ServiceTokenResponseDTO issueToken(String clientId, String clientSecret) {
+        ServiceClientProperties.Client client = clientId == null ? null : properties.getClients().get(clientId);
+        if (client == null || client.getSecretHash() == null || clientSecret == null
+                || !passwordEncoder.matches(clientSecret, client.getSecretHash())) {
+            Counter.builder("auth.service-tokens.rejected")
+                    .description("Client credentials requests refused for an unknown client or wrong secret")
+                    .register(meterRegistry)
+                    .increment();
+            throw new InvalidClientException("Invalid client credentials");
+        }
+
+        String token = jwtUtil.generateServiceToken(clientId, properties.getTtl());
+        Counter.builder("auth.service-tokens.issued")
+                .description("Service tokens issued through the client credentials grant")
+                .tag("client", clientId)
+                .register(meterRegistry)
+                .increment();
+        log.info("Issued service token to {}", clientId);
+
+        return ServiceTokenResponseDTO.builder()
+                .accessToken(token)
+                .tokenType("Bearer")
+                .expiresIn(properties.getTtl().toSeconds())
+                .build();
+    }
+}
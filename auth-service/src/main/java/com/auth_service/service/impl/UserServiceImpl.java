@@ -1,6 +1,8 @@
 package com.auth_service.service.impl;
 
 import com.auth_service.auth.oauth2.OAuth2UserInfo;
+import com.auth_service.cache.RegisteredUsernames;
+import com.auth_service.dto.response.CursorPageDTO;
 import com.auth_service.dto.response.UserResponseDTO;
 import com.auth_service.dto.response.UserSummaryDTO;
 import com.auth_service.exception.DuplicateResourceException;
@@ -9,16 +11,27 @@ import com.auth_service.mapper.UserMapper;
 import com.auth_service.model.EAuthProvider;
 import com.auth_service.model.ERole;
 import com.auth_service.model.User;
+import com.auth_service.repository.UserExportRepository;
 import com.auth_service.repository.UserRepository;
 import com.auth_service.service.UserService;
 import com.auth_service.util.JwtUtil;
+import com.auth_service.util.UserCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,17 +40,30 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String USERNAME_CONSTRAINT = "uk_user_username";
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
+    private final RegisteredUsernames registeredUsernames;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final UserMapper userMapper;
+    private final UserExportRepository userExportRepository;
+    private final ObjectMapper objectMapper;
 
 
+    /**
+     * Registers a local user with a single insert. The username filter lets names never seen before skip the
+     * existence check; for the rest one indexed lookup rejects taken names before the password is hashed.
+     * Concurrent registrations of the same name are settled by {@code uk_user_username}.
+     */
     @Override
     public User createUser(User user) {
         log.info("Registering new local user: {}", user.getUsername());
 
-        if (userRepository.existsByUsername(user.getUsername())) {
+        if (registeredUsernames.mightBeTaken(user.getUsername())
+                && userRepository.existsByUsername(user.getUsername())) {
             throw new DuplicateResourceException("User with email already exists: " + user.getUsername());
         }
 
@@ -46,19 +72,67 @@ public class UserServiceImpl implements UserService {
         user.setAuthProvider(EAuthProvider.LOCAL);
         user.setRole(ERole.ROLE_RESTAURANT_OWNER); // assign developer role by default
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            // Flush so a unique violation surfaces here rather than at some later commit
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isUsernameConflict(e)) {
+                throw new DuplicateResourceException("User with email already exists: " + user.getUsername());
+            }
+            throw e;
+        }
         log.info("Successfully registered local user with ID: {}", savedUser.getId());
 
         return savedUser;
     }
 
     @Override
-    public List<UserResponseDTO> getAllUsers() {
-        log.info("Getting all users");
-        return userRepository.findAllUserDetails()
-                .stream()
-                .map(userMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<UserResponseDTO> getUsers(String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        log.info("Getting users after cursor {} (limit {})", cursor, limit);
+
+        // One extra row tells whether another page follows
+        List<User> users;
+        if (cursor == null || cursor.isBlank()) {
+            users = userRepository.findFirstPage(limit + 1);
+        } else {
+            UserCursor after = UserCursor.decode(cursor);
+            users = userRepository.findPageAfter(after.createdDate(), after.id(), limit + 1);
+        }
+
+        boolean hasNext = users.size() > limit;
+        List<User> page = hasNext ? users.subList(0, limit) : users;
+        User last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageDTO.<UserResponseDTO>builder()
+                .items(page.stream().map(userMapper::toResponseDTO).collect(Collectors.toList()))
+                .nextCursor(hasNext ? new UserCursor(last.getCreatedDate(), last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Writes one JSON object per line as rows arrive from the cursor, so memory use does not depend on the
+     * number of users. The read-only transaction keeps the PostgreSQL cursor open for the whole export.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) throws IOException {
+        log.info("Exporting all users");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            userExportRepository.forEachUser(user -> {
+                try {
+                    generator.writeObject(user);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
@@ -106,5 +180,36 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUsername(username)
                 .orElseThrow(()->new UsernameNotFoundException("User with username " + username + " not found"));
     }
-}
 
+    /**
+     * Called after a successful login whose stored hash was made with a lower BCrypt cost than configured.
+     * The user is the one {@link #loadUserByUsername} just returned, so it is saved as is rather than looked
+     * up again. Rehashing keeps the password version, so the user's refresh tokens stay valid.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userDetails instanceof User loaded
+                ? loaded
+                : (User) loadUserByUsername(userDetails.getUsername());
+        user.setPassword(newPassword);
+
+        User savedUser = userRepository.save(user);
+        log.info("Rehashed password for user {} with the current BCrypt cost", savedUser.getId());
+
+        return savedUser;
+    }
+
+    private static boolean isUsernameConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && USERNAME_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())
+                    && String.valueOf(sql.getMessage()).contains("(username)")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+package com.auth_service.util;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over UUIDs and strings. {@code mightContain} never returns {@code false} for a
+ * value that was added, and returns {@code true} for other values with roughly the configured probability.
+ * <p>
+ * Bits are set with CAS on an {@link AtomicLongArray}, so concurrent {@code put} calls and lookups need no lock.
+ * Values cannot be removed; callers rebuild the filter to drop them.
+ */
+public final class BloomFilter {
+
+    private static final long SEED = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Sizes a filter to hold {@code expectedInsertions} values at a false-positive rate of {@code fpp}.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be between 0 and 1");
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        bits = Math.min(Math.max(64, bits), (long) Integer.MAX_VALUE << 6);
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(UUID value) {
+        long h1 = mix(value.getMostSignificantBits());
+        put(h1, mix(value.getLeastSignificantBits() ^ h1));
+    }
+
+    public void put(String value) {
+        long h1 = mix(fnv1a(value));
+        put(h1, mix(h1 ^ SEED));
+    }
+
+    public boolean mightContain(UUID value) {
+        long h1 = mix(value.getMostSignificantBits());
+        return mightContain(h1, mix(value.getLeastSignificantBits() ^ h1));
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = mix(fnv1a(value));
+        return mightContain(h1, mix(h1 ^ SEED));
+    }
+
+    private void put(long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.weakCompareAndSetVolatile(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private static long fnv1a(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // MurmurHash3 finalizer: spreads every input bit over the whole word
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
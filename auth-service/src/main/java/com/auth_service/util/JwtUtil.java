@@ -1,6 +1,10 @@
 package com.auth_service.util;
 
+import com.jwt_codec.Hs256Signer;
+import com.jwt_codec.Hs256Verifier;
+import com.jwt_codec.JwtClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -11,19 +15,43 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Getter
 @Component
 public class JwtUtil {
-    private final SecretKey secretKey;
-
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+    public static final String FAMILY_CLAIM = "fam";
+    public static final String CREDENTIAL_CLAIM = "crd";
+    public static final String SERVICE_ROLE = "ROLE_SERVICE";
+
+    private static final Duration ACCESS_EXPIRATION = Duration.ofMinutes(15);
+
+    private final Hs256Signer signer;
+    private final Hs256Verifier verifier;
+    private final SecretKey refreshKey;
+    private final JwtParser refreshParser;
+    private final Duration refreshExpiration;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.refresh-expiration:7d}") Duration refreshExpiration) {
+        // Access tokens are signed and verified on every request, so they go through the shared codec,
+        // which keeps a Mac and scratch buffers per thread; the rarer refresh tokens stay on jjwt
+        this.signer = new Hs256Signer(secret.getBytes());
+        this.verifier = new Hs256Verifier(secret.getBytes());
+        // Refresh tokens get their own key, so the gateway and JwtAuthFilter reject them as access tokens
+        this.refreshKey = Keys.hmacShaKeyFor(deriveKey(secret, "refresh-token"));
+        this.refreshParser = Jwts.parserBuilder()
+                .setSigningKey(refreshKey)
+                .build();
+        this.refreshExpiration = refreshExpiration;
     }
 
 
@@ -36,45 +64,67 @@ public class JwtUtil {
     }
 
     public String generateToken(String Id, String username, String role) {
-        // 15 minutes
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", Id);
-        claims.put("email", username);
-        claims.put("roles", role);
+        long now = System.currentTimeMillis() / 1000;
+        return signer.sign(new JwtClaims(username, Id, username, role, now, now + ACCESS_EXPIRATION.toSeconds()));
+    }
 
-        long EXPIRATION_TIME = 1000 * 60 * 15;
+    /**
+     * Issues an access token for a service client rather than a user. The client id stands in for the
+     * username and user id, and the only role is {@link #SERVICE_ROLE}.
+     */
+    public String generateServiceToken(String clientId, Duration ttl) {
+        long now = System.currentTimeMillis() / 1000;
+        return signer.sign(new JwtClaims(clientId, clientId, clientId, SERVICE_ROLE, now, now + ttl.toSeconds()));
+    }
 
+    /**
+     * Issues a refresh token in {@code familyId}, the chain of tokens rotated from one login. The
+     * credential fingerprint ties it to the password the user had when it was issued.
+     */
+    public String generateRefreshToken(String id, String username, UUID familyId, String credentialFingerprint) {
+        Date now = new Date();
         return Jwts.builder()
-                .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSecretKey(), SignatureAlgorithm.HS256)
+                .claim("userId", id)
+                .claim(FAMILY_CLAIM, familyId.toString())
+                .claim(CREDENTIAL_CLAIM, credentialFingerprint)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + refreshExpiration.toMillis()))
+                .signWith(refreshKey, SignatureAlgorithm.HS256)
                 .compact();
-
     }
 
-    public String extractUsernameFromToken(String token) {
-        return extraClaims(token).getSubject();
+    /**
+     * Verifies a refresh token's signature and expiry and returns its claims. Access tokens fail here, as
+     * refresh tokens fail {@link #parseClaims}.
+     */
+    public Claims parseRefreshClaims(String token) {
+        return refreshParser.parseClaimsJws(token).getBody();
     }
 
-    private Claims extraClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSecretKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token's signature and expiry and returns all of its claims in a single parse.
+     * Throws {@link com.jwt_codec.InvalidJwtException} if the token is invalid or expired.
+     */
+    public JwtClaims parseClaims(String token) {
+        return verifier.verify(token);
     }
 
-    public boolean validateToken(String username, UserDetails userDetails, String token) {
+    public boolean validateToken(JwtClaims claims, UserDetails userDetails) {
 
-        // check if username is same as username in userDetails and if the token that we have is not expired
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        // check if subject is same as username in userDetails and if the token that we have is not expired
+        return claims.subject().equals(userDetails.getUsername())
+                && claims.expiresAtMillis() >= System.currentTimeMillis();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extraClaims(token).getExpiration().before(new Date());
+    private static byte[] deriveKey(String secret, String purpose) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(purpose.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
     }
 }
-
-
@@ -1,15 +1,29 @@
 package com.auth_service.util;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class PasswordEncoderUtil {
 
+    /**
+     * BCrypt with a configurable cost, run on a bounded pool. Raising {@code auth.bcrypt.strength} makes
+     * {@link PasswordEncoder#upgradeEncoding} true for older hashes, so they are rehashed on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength,
+                                           @Value("${auth.password-hashing.threads:0}") int threads,
+                                           @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${auth.password-hashing.timeout:5s}") Duration timeout,
+                                           MeterRegistry meterRegistry) {
+        int workers = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), workers, queueCapacity, timeout,
+                meterRegistry);
     }
 }
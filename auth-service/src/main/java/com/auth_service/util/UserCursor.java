@@ -0,0 +1,30 @@
+package com.auth_service.util;
+
+import com.auth_service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the user listing, which is ordered by {@code (created_date, id)}: the sort key of the last
+ * user on a page. Clients see it as an opaque URL-safe string.
+ */
+public record UserCursor(LocalDateTime createdDate, UUID id) {
+
+    public String encode() {
+        String raw = createdDate + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new UserCursor(LocalDateTime.parse(raw.substring(0, comma)), UUID.fromString(raw.substring(comma + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid pagination cursor", e);
+        }
+    }
+}
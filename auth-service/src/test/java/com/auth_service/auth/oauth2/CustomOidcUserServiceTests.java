@@ -0,0 +1,95 @@
+package com.auth_service.auth.oauth2;
+
+import com.auth_service.auth.CustomOidcUserPrincipal;
+import com.auth_service.cache.OidcSubjectCache;
+import com.auth_service.cache.UserDetailsCache;
+import com.auth_service.model.EAuthProvider;
+import com.auth_service.model.ERole;
+import com.auth_service.model.User;
+import com.auth_service.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomOidcUserServiceTests {
+
+    private static final String EMAIL = "alice@bytebites.com";
+
+    private final UserService userService = mock(UserService.class);
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+    private final CustomOidcUserService service = new CustomOidcUserService(userService, userDetailsCache,
+            new OidcSubjectCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry()));
+
+    @Test
+    void repeatedLoginForSameSubjectDoesNotReachUserService() {
+        User alice = user();
+        when(userService.registerOAuth2User(any())).thenReturn(alice);
+
+        CustomOidcUserPrincipal first = (CustomOidcUserPrincipal) service.loadUser(request("sub-1"));
+        CustomOidcUserPrincipal second = (CustomOidcUserPrincipal) service.loadUser(request("sub-1"));
+
+        assertThat(first.getUser()).isSameAs(alice);
+        assertThat(second.getUser()).isSameAs(alice);
+        verify(userService, times(1)).registerOAuth2User(any());
+        verify(userService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void changedUserIsReloadedAndDeletedUserIsRegisteredAgain() {
+        User alice = user();
+        when(userService.registerOAuth2User(any())).thenReturn(alice);
+        service.loadUser(request("sub-1"));
+
+        userDetailsCache.evict(EMAIL);
+        when(userService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException(EMAIL));
+        service.loadUser(request("sub-1"));
+
+        verify(userService).loadUserByUsername(EMAIL);
+        verify(userService, times(2)).registerOAuth2User(any());
+    }
+
+    private static User user() {
+        User user = new User(EMAIL, "", ERole.ROLE_CUSTOMER, EAuthProvider.GOOGLE);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static OidcUserRequest request(String subject) {
+        ClientRegistration registration = ClientRegistration.withRegistrationId("google")
+                .clientId("client")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost/login/oauth2/code/google")
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .tokenUri("https://oauth2.googleapis.com/token")
+                .build();
+        Instant now = Instant.now();
+        OidcIdToken idToken = OidcIdToken.withTokenValue("id-token")
+                .issuer("https://accounts.google.com")
+                .subject(subject)
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .claim("email", EMAIL)
+                .claim("name", "Alice")
+                .build();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access", now,
+                now.plusSeconds(300));
+        return new OidcUserRequest(registration, accessToken, idToken);
+    }
+}
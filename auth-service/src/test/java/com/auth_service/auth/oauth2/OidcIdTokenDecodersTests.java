@@ -0,0 +1,164 @@
+package com.auth_service.auth.oauth2;
+
+import com.auth_service.auth.oauth2.stub.StubOidcProviderController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class OidcIdTokenDecodersTests {
+
+    private static final String BASE_URL = "http://localhost:8080";
+    private static final String JWKS_URI = BASE_URL + "/stub-oidc/jwks";
+    private static final String REDIRECT_URI = BASE_URL + "/login/oauth2/code/stub";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RestClient.Builder restClientBuilder = RestClient.builder();
+    private final MockRestServiceServer provider = MockRestServiceServer.bindTo(restClientBuilder).build();
+    private final ClientRegistration registration = ClientRegistration.withRegistrationId("stub")
+            .clientId("bytebites-local")
+            .clientSecret("stub-secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri(REDIRECT_URI)
+            .scope("openid", "email")
+            .authorizationUri(BASE_URL + "/stub-oidc/authorize")
+            .tokenUri(BASE_URL + "/stub-oidc/token")
+            .jwkSetUri(JWKS_URI)
+            .build();
+
+    private StubOidcProviderController stub;
+    private JwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = stub();
+        decoder = decoder(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void verifiesStubIdTokensWithKeysFetchedOnce() throws Exception {
+        provider.expect(once(), requestTo(JWKS_URI)).andRespond(jwks());
+
+        Jwt first = decoder.decode(idToken("alice@bytebites.com"));
+        Jwt second = decoder.decode(idToken("bob@bytebites.com"));
+
+        provider.verify();
+        assertThat(first.getClaimAsString("email")).isEqualTo("alice@bytebites.com");
+        assertThat(second.getSubject()).isNotEqualTo(first.getSubject());
+        assertThat(registry.get("auth.oidc.jwks.fetches").tag("result", "success").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownKeyDoesNotRefetchWithinTheMinimumInterval() throws Exception {
+        provider.expect(once(), requestTo(JWKS_URI)).andRespond(jwks());
+        decoder.decode(idToken("alice@bytebites.com"));
+
+        String foreign = foreignToken();
+        assertThatThrownBy(() -> decoder.decode(foreign)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(foreign)).isInstanceOf(JwtException.class);
+
+        provider.verify();
+    }
+
+    @Test
+    void rotatedKeyIsFetchedWithoutWaitingForTheSchedule() throws Exception {
+        JwtDecoder eager = decoder(Duration.ZERO);
+        provider.expect(once(), requestTo(JWKS_URI)).andRespond(jwks());
+        eager.decode(idToken("alice@bytebites.com"));
+        provider.verify();
+        provider.reset();
+
+        stub = stub();
+        provider.expect(once(), requestTo(JWKS_URI)).andRespond(jwks());
+        Jwt rotated = eager.decode(idToken("alice@bytebites.com"));
+
+        provider.verify();
+        assertThat(rotated.getClaimAsString("email")).isEqualTo("alice@bytebites.com");
+        assertThat(registry.get("auth.oidc.jwks.fetches").tag("result", "success").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTokensForAnotherClient() throws Exception {
+        provider.expect(once(), requestTo(JWKS_URI)).andRespond(jwks());
+        StubOidcProviderController otherClient =
+                new StubOidcProviderController(new ObjectMapper(), BASE_URL, "someone-else", "stub-secret");
+
+        assertThatThrownBy(() -> decoder.decode(idToken(otherClient, "someone-else", "alice@bytebites.com")))
+                .isInstanceOf(JwtException.class);
+    }
+
+    private JwtDecoder decoder(Duration minRefreshInterval) {
+        OidcProviderKeys providerKeys = new OidcProviderKeys(new InMemoryClientRegistrationRepository(registration),
+                restClientBuilder.build(), minRefreshInterval, registry);
+        return new OidcIdTokenDecoders(providerKeys).createDecoder(registration);
+    }
+
+    private static StubOidcProviderController stub() throws Exception {
+        return new StubOidcProviderController(new ObjectMapper(), BASE_URL, "bytebites-local", "stub-secret");
+    }
+
+    private ResponseCreator jwks() throws Exception {
+        return withSuccess(new ObjectMapper().writeValueAsString(stub.jwks()), MediaType.APPLICATION_JSON);
+    }
+
+    private String idToken(String email) throws Exception {
+        return idToken(stub, "bytebites-local", email);
+    }
+
+    private static String idToken(StubOidcProviderController provider, String clientId, String email) throws Exception {
+        ResponseEntity<Void> authorized = provider.authorize(clientId, REDIRECT_URI, "state", "nonce", email);
+        String code = UriComponentsBuilder.fromUri(authorized.getHeaders().getLocation()).build()
+                .getQueryParams().getFirst("code");
+        String basic = "Basic " + Base64.getEncoder().encodeToString(
+                (clientId + ":stub-secret").getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> body = provider.token(basic, "authorization_code", code, REDIRECT_URI).getBody();
+        return (String) body.get("id_token");
+    }
+
+    private static String foreignToken() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("rotated").generate();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(BASE_URL + "/stub-oidc")
+                .subject("mallory")
+                .audience("bytebites-local")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
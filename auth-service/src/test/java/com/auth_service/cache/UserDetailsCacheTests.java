@@ -0,0 +1,135 @@
+package com.auth_service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserDetailsCacheTests {
+
+    private final UserDetailsCache cache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
+    @Test
+    void concurrentMissesShareOneLoadRunOnTheCallingVirtualThread() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<UserDetails>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.get("alice", username -> {
+                    loads.incrementAndGet();
+                    assertThat(Thread.currentThread().isVirtual()).isTrue();
+                    await(release);
+                    return user(username);
+                })));
+            }
+            while (loads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<UserDetails> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getUsername()).isEqualTo("alice");
+            }
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoadPropagatesAndIsNotCached() {
+        assertThatThrownBy(() -> cache.get("ghost", username -> {
+            throw new UsernameNotFoundException("User not found: " + username);
+        })).isInstanceOf(UsernameNotFoundException.class);
+
+        assertThat(cache.get("ghost", this::user).getUsername()).isEqualTo("ghost");
+    }
+
+    @Test
+    void evictForcesReload() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("bob", username -> {
+            loads.incrementAndGet();
+            return user(username);
+        });
+
+        cache.evict("bob");
+        cache.get("bob", username -> {
+            loads.incrementAndGet();
+            return user(username);
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictDuringLoadKeepsTheLoadedValueOutOfTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("carol", username -> {
+            loads.incrementAndGet();
+            cache.evict(username);
+            return user(username);
+        });
+
+        cache.get("carol", username -> {
+            loads.incrementAndGet();
+            return user(username);
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadStartedBeforeCommitIsNotCachedAfterIt() {
+        AtomicInteger loads = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict("dave");
+            // Reads the row before the evicting transaction commits, and finishes after it has
+            UserDetails stale = cache.get("dave", username -> {
+                loads.incrementAndGet();
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                return user(username);
+            });
+            assertThat(stale.getUsername()).isEqualTo("dave");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.get("dave", username -> {
+            loads.incrementAndGet();
+            return user(username);
+        });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private UserDetails user(String username) {
+        return User.withUsername(username).password("{noop}secret").roles("CUSTOMER").build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
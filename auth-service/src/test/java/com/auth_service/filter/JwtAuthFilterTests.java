@@ -0,0 +1,84 @@
+package com.auth_service.filter;
+
+import com.auth_service.cache.UserDetailsCache;
+import com.auth_service.model.EAuthProvider;
+import com.auth_service.model.ERole;
+import com.auth_service.model.User;
+import com.auth_service.service.UserService;
+import com.auth_service.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTests {
+
+    private static final String USERNAME = "owner@bytebites.com";
+
+    private final UserService userService = mock(UserService.class);
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-256-bits-long!!", Duration.ofDays(7));
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+    private final JwtAuthFilter filter = new JwtAuthFilter(userService, jwtUtil, userDetailsCache);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userIsLoadedOnceAcrossRequestsUntilEvicted() throws Exception {
+        when(userService.loadUserByUsername(USERNAME)).thenReturn(user());
+        String token = jwtUtil.generateToken(UUID.randomUUID().toString(), USERNAME, ERole.ROLE_RESTAURANT_OWNER.name());
+
+        assertThat(authenticate(token)).isEqualTo(USERNAME);
+        assertThat(authenticate(token)).isEqualTo(USERNAME);
+        verify(userService, times(1)).loadUserByUsername(USERNAME);
+
+        userDetailsCache.evict(USERNAME);
+        assertThat(authenticate(token)).isEqualTo(USERNAME);
+        verify(userService, times(2)).loadUserByUsername(USERNAME);
+    }
+
+    @Test
+    void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+        assertThat(authenticate("not-a-jwt")).isNull();
+        verify(userService, times(0)).loadUserByUsername(USERNAME);
+    }
+
+    @Test
+    void serviceTokenAuthenticatesWithoutUserLookup() throws Exception {
+        String token = jwtUtil.generateServiceToken("order-service", Duration.ofMinutes(15));
+
+        assertThat(authenticate(token)).isEqualTo("order-service");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly(JwtUtil.SERVICE_ROLE);
+        verify(userService, times(0)).loadUserByUsername("order-service");
+    }
+
+    private String authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/auth/user/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static User user() {
+        User user = new User(USERNAME, "{noop}secret", ERole.ROLE_RESTAURANT_OWNER, EAuthProvider.LOCAL);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -0,0 +1,156 @@
+package com.auth_service.security;
+
+import com.auth_service.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptGuardTests {
+
+    private static final Duration WINDOW = Duration.ofMinutes(10);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginAttemptGuard guard = new LoginAttemptGuard(true, WINDOW, 3, 5, 1024, registry, clock::get);
+
+    @Test
+    void blocksUsernameOnceThresholdIsReachedUntilWindowSlidesPast() {
+        for (int i = 0; i < 3; i++) {
+            guard.checkAllowed("Alice", "10.0.0." + i);
+            guard.loginFailed();
+        }
+
+        assertThatThrownBy(() -> guard.checkAllowed("alice", "10.0.0.9"))
+                .isInstanceOf(TooManyLoginAttemptsException.class)
+                .satisfies(e -> assertThat(((TooManyLoginAttemptsException) e).getRetryAfter())
+                        .isPositive()
+                        .isLessThanOrEqualTo(WINDOW.multipliedBy(2)));
+        assertThat(registry.get("auth.login.blocked").tag("scope", "username").counter().count()).isEqualTo(1);
+
+        clock.addAndGet(WINDOW.multipliedBy(2).toNanos());
+        assertThatCode(() -> guard.checkAllowed("alice", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successClearsUsernameButNotClientFailures() {
+        for (int i = 1; i < 5; i++) {
+            guard.checkAllowed("user" + i, "203.0.113.7");
+            guard.loginFailed();
+        }
+        guard.checkAllowed("user0", "203.0.113.7");
+        guard.loginSucceeded("user0", "203.0.113.7");
+        guard.checkAllowed("user5", "203.0.113.7");
+        guard.loginFailed();
+
+        assertThat(guard.attempts().usernames()).doesNotContainKey("user0");
+        assertThat(guard.attempts().clients().get("203.0.113.7").locked()).isTrue();
+        assertThatThrownBy(() -> guard.checkAllowed("someone-else", "203.0.113.7"))
+                .isInstanceOf(TooManyLoginAttemptsException.class);
+
+        guard.unlock("203.0.113.7");
+        assertThatCode(() -> guard.checkAllowed("someone-else", "203.0.113.7")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void concurrentGuessesCannotExceedTheThreshold() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        try {
+            List<Future<?>> guesses = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String client = "10.0.1." + i;
+                guesses.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        guard.checkAllowed("alice", client);
+                        admitted.incrementAndGet();
+                    } catch (TooManyLoginAttemptsException e) {
+                        // Expected once the threshold is reserved
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> guess : guesses) {
+                guess.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(admitted).hasValue(3);
+        // Clients turned away on the username keep no reservation of their own
+        assertThat(guard.attempts().clients()).hasSize(3);
+    }
+
+    @Test
+    void abandonedLoginHandsItsAttemptBack() {
+        for (int i = 0; i < 3; i++) {
+            guard.checkAllowed("alice", "10.0.0.1");
+            guard.loginAbandoned("alice", "10.0.0.1");
+        }
+
+        assertThat(guard.attempts().usernames()).isEmpty();
+        assertThat(guard.attempts().clients()).isEmpty();
+        assertThatCode(() -> guard.checkAllowed("alice", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void previousWindowDecaysLinearly() {
+        SlidingWindowCounters counters = new SlidingWindowCounters(WINDOW, 4, 16);
+        long start = clock.get();
+        for (int i = 0; i < 4; i++) {
+            counters.increment("key", start);
+        }
+
+        long quarterIntoNextWindow = start + WINDOW.toNanos() + WINDOW.toNanos() / 4;
+        assertThat(counters.count("key", quarterIntoNextWindow)).isEqualTo(3.0);
+        assertThat(counters.timeUntilBelow("key", 2, quarterIntoNextWindow)).isEqualTo(WINDOW.dividedBy(4));
+
+        assertThat(counters.snapshot(start + WINDOW.toNanos() * 2)).isEmpty();
+        assertThat(counters.size()).isZero();
+    }
+
+    @Test
+    void fullStripeDropsQuietestKey() {
+        SlidingWindowCounters counters = new SlidingWindowCounters(WINDOW, 1, 2);
+        long now = clock.get();
+        counters.increment("busy", now);
+        counters.increment("busy", now);
+        counters.increment("quiet", now);
+
+        counters.increment("new", now);
+
+        assertThat(counters.snapshot(now)).containsOnlyKeys("busy", "new");
+    }
+
+    @Test
+    void trustsForwardedAddressOnlyFromInternalPeers() {
+        MockHttpServletRequest viaGateway = new MockHttpServletRequest();
+        viaGateway.setRemoteAddr("127.0.0.1");
+        viaGateway.addHeader("X-Forwarded-For", "1.2.3.4, 198.51.100.20");
+        assertThat(LoginAttemptGuard.clientAddress(viaGateway)).isEqualTo("198.51.100.20");
+
+        MockHttpServletRequest direct = new MockHttpServletRequest();
+        direct.setRemoteAddr("198.51.100.30");
+        direct.addHeader("X-Forwarded-For", "10.0.0.1");
+        assertThat(LoginAttemptGuard.clientAddress(direct)).isEqualTo("198.51.100.30");
+    }
+}
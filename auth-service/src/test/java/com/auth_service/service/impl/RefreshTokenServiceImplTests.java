@@ -0,0 +1,106 @@
+package com.auth_service.service.impl;
+
+import com.auth_service.cache.UserDetailsCache;
+import com.auth_service.dto.response.JwtResponseDTO;
+import com.auth_service.exception.InvalidTokenException;
+import com.auth_service.model.EAuthProvider;
+import com.auth_service.model.ERole;
+import com.auth_service.model.User;
+import com.auth_service.security.TokenRevocationList;
+import com.auth_service.service.UserService;
+import com.auth_service.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceImplTests {
+
+    private static final String USERNAME = "owner@bytebites.com";
+
+    private final UserService userService = mock(UserService.class);
+    private final TokenRevocationList revocationList = mock(TokenRevocationList.class);
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-256-bits-long!!", Duration.ofDays(7));
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+    private final RefreshTokenServiceImpl service =
+            new RefreshTokenServiceImpl(jwtUtil, userService, userDetailsCache, revocationList);
+
+    private final User user = user("$2a$10$hash");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "refreshExpiration", Duration.ofDays(7));
+        when(userService.loadUserByUsername(USERNAME)).thenReturn(user);
+        when(revocationList.revoke(any(), any())).thenReturn(true);
+    }
+
+    @Test
+    void refreshRotatesTokenWithinTheSameFamily() {
+        JwtResponseDTO login = service.issueTokens(user);
+
+        JwtResponseDTO refreshed = service.refresh(login.getRefreshToken());
+
+        UUID oldId = UUID.fromString(jwtUtil.parseRefreshClaims(login.getRefreshToken()).getId());
+        verify(revocationList).revoke(eq(oldId), any(Instant.class));
+        assertThat(refreshed.getRefreshToken()).isNotEqualTo(login.getRefreshToken());
+        assertThat(family(refreshed.getRefreshToken())).isEqualTo(family(login.getRefreshToken()));
+        assertThat(jwtUtil.parseClaims(refreshed.getToken()).subject()).isEqualTo(USERNAME);
+    }
+
+    @Test
+    void reusedRefreshTokenRevokesItsFamily() {
+        String refreshToken = service.issueTokens(user).getRefreshToken();
+        UUID tokenId = UUID.fromString(jwtUtil.parseRefreshClaims(refreshToken).getId());
+        when(revocationList.revoke(eq(tokenId), any())).thenReturn(false);
+
+        assertThatThrownBy(() -> service.refresh(refreshToken)).isInstanceOf(InvalidTokenException.class);
+        verify(revocationList).revoke(eq(family(refreshToken)), any(Instant.class));
+    }
+
+    @Test
+    void passwordChangeInvalidatesRefreshTokens() {
+        String refreshToken = service.issueTokens(user).getRefreshToken();
+        user.changePassword("$2a$10$changed");
+
+        assertThatThrownBy(() -> service.refresh(refreshToken)).isInstanceOf(InvalidTokenException.class);
+        verify(revocationList, never()).revoke(any(), any());
+    }
+
+    @Test
+    void rehashingTheSamePasswordKeepsRefreshTokensValid() {
+        String refreshToken = service.issueTokens(user).getRefreshToken();
+        // What the login rehash does when the configured BCrypt cost goes up
+        user.setPassword("$2a$12$rehashed");
+
+        assertThat(service.refresh(refreshToken).getRefreshToken()).isNotEqualTo(refreshToken);
+    }
+
+    @Test
+    void accessTokensAreNotAcceptedAsRefreshTokens() {
+        String accessToken = service.issueTokens(user).getToken();
+
+        assertThatThrownBy(() -> service.refresh(accessToken)).isInstanceOf(InvalidTokenException.class);
+    }
+
+    private UUID family(String refreshToken) {
+        return UUID.fromString(jwtUtil.parseRefreshClaims(refreshToken).get(JwtUtil.FAMILY_CLAIM, String.class));
+    }
+
+    private static User user(String password) {
+        User user = new User(USERNAME, password, ERole.ROLE_RESTAURANT_OWNER, EAuthProvider.LOCAL);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -0,0 +1,64 @@
+package com.auth_service.service.impl;
+
+import com.auth_service.config.ServiceClientProperties;
+import com.auth_service.dto.response.ServiceTokenResponseDTO;
+import com.auth_service.exception.InvalidClientException;
+import com.auth_service.util.JwtUtil;
+import com.jwt_codec.JwtClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceTokenServiceImplTests {
+
+    private static final String CLIENT_ID = "order-service";
+    private static final String SECRET = "order-service-secret";
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-at-least-256-bits-long!!", Duration.ofDays(7));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ServiceClientProperties properties = new ServiceClientProperties();
+    private final ServiceTokenServiceImpl service =
+            new ServiceTokenServiceImpl(properties, passwordEncoder, jwtUtil, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ServiceClientProperties.Client client = new ServiceClientProperties.Client();
+        client.setSecretHash(passwordEncoder.encode(SECRET));
+        properties.getClients().put(CLIENT_ID, client);
+        properties.setTtl(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void registeredClientGetsServiceToken() {
+        ServiceTokenResponseDTO response = service.issueToken(CLIENT_ID, SECRET);
+
+        JwtClaims claims = jwtUtil.parseClaims(response.getAccessToken());
+        assertThat(claims.subject()).isEqualTo(CLIENT_ID);
+        assertThat(claims.roles()).isEqualTo(JwtUtil.SERVICE_ROLE);
+        assertThat(claims.expiresAt() - claims.issuedAt()).isEqualTo(600);
+        assertThat(response.getExpiresIn()).isEqualTo(600);
+        assertThat(response.getTokenType()).isEqualTo("Bearer");
+        assertThat(meterRegistry.get("auth.service-tokens.issued").tag("client", CLIENT_ID).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void wrongSecretOrUnknownClientIsRejected() {
+        assertThatThrownBy(() -> service.issueToken(CLIENT_ID, "guess"))
+                .isInstanceOf(InvalidClientException.class);
+        assertThatThrownBy(() -> service.issueToken("payment-service", SECRET))
+                .isInstanceOf(InvalidClientException.class);
+        assertThatThrownBy(() -> service.issueToken(null, null))
+                .isInstanceOf(InvalidClientException.class);
+
+        assertThat(meterRegistry.get("auth.service-tokens.rejected").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.find("auth.service-tokens.issued").counter()).isNull();
+    }
+}
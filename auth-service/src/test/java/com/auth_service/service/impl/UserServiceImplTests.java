@@ -0,0 +1,149 @@
+package com.auth_service.service.impl;
+
+import com.auth_service.cache.RegisteredUsernames;
+import com.auth_service.dto.response.CursorPageDTO;
+import com.auth_service.dto.response.UserResponseDTO;
+import com.auth_service.exception.DuplicateResourceException;
+import com.auth_service.mapper.UserMapperImpl;
+import com.auth_service.model.EAuthProvider;
+import com.auth_service.model.ERole;
+import com.auth_service.model.User;
+import com.auth_service.repository.UserExportRepository;
+import com.auth_service.repository.UserRepository;
+import com.auth_service.util.JwtUtil;
+import com.auth_service.util.UserCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 7, 1, 10, 15, 30, 123_456_000);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExportRepository userExportRepository = mock(UserExportRepository.class);
+    private final RegisteredUsernames registeredUsernames = mock(RegisteredUsernames.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final UserServiceImpl service = new UserServiceImpl(userRepository, registeredUsernames, passwordEncoder,
+            mock(JwtUtil.class), new UserMapperImpl(), userExportRepository,
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void unseenUsernameIsInsertedWithoutExistenceCheck() {
+        when(registeredUsernames.mightBeTaken("new@bytebites.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.createUser(new User("new@bytebites.com", "secret", null, null));
+
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void takenUsernameIsRejectedBeforeHashing() {
+        when(registeredUsernames.mightBeTaken("taken@bytebites.com")).thenReturn(true);
+        when(userRepository.existsByUsername("taken@bytebites.com")).thenReturn(true);
+
+        assertThatThrownBy(() -> service.createUser(new User("taken@bytebites.com", "secret", null, null)))
+                .isInstanceOf(DuplicateResourceException.class);
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void concurrentRegistrationIsMappedFromUniqueConstraint() {
+        when(registeredUsernames.mightBeTaken("race@bytebites.com")).thenReturn(false);
+        SQLException duplicate = new SQLException("duplicate key value violates unique constraint", "23505");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("conflict",
+                new ConstraintViolationException("conflict", duplicate, "uk_user_username")));
+
+        assertThatThrownBy(() -> service.createUser(new User("race@bytebites.com", "secret", null, null)))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void pageEndsWithCursorAtLastReturnedUser() {
+        List<User> users = List.of(user("a@bytebites.com", 0), user("b@bytebites.com", 1), user("c@bytebites.com", 2));
+        when(userRepository.findFirstPage(3)).thenReturn(users);
+
+        CursorPageDTO<UserResponseDTO> page = service.getUsers(null, 2);
+
+        assertThat(page.getItems()).extracting(UserResponseDTO::getUsername)
+                .containsExactly("a@bytebites.com", "b@bytebites.com");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(UserCursor.decode(page.getNextCursor()))
+                .isEqualTo(new UserCursor(users.get(1).getCreatedDate(), users.get(1).getId()));
+    }
+
+    @Test
+    void nextPageSeeksPastCursor() {
+        User last = user("c@bytebites.com", 2);
+        UserCursor cursor = new UserCursor(CREATED, UUID.randomUUID());
+        when(userRepository.findPageAfter(cursor.createdDate(), cursor.id(), 51)).thenReturn(List.of(last));
+
+        CursorPageDTO<UserResponseDTO> page = service.getUsers(cursor.encode(), 50);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportWritesOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserResponseDTO> action = invocation.getArgument(0);
+            action.accept(UserResponseDTO.builder().username("a@bytebites.com").role(ERole.ROLE_ADMIN).build());
+            action.accept(UserResponseDTO.builder().username("b@bytebites.com").role(ERole.ROLE_CUSTOMER).build());
+            return null;
+        }).when(userExportRepository).forEachUser(any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportUsers(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"username\":\"a@bytebites.com\"");
+        assertThat(lines[1]).contains("\"role\":\"ROLE_CUSTOMER\"");
+    }
+
+    @Test
+    void rehashSavesTheLoadedUserWithoutLookingItUpAgain() {
+        User loaded = user("rehash@bytebites.com", 0);
+        when(userRepository.save(loaded)).thenReturn(loaded);
+
+        service.updatePassword(loaded, "$2a$12$rehashed");
+
+        assertThat(loaded.getPassword()).isEqualTo("$2a$12$rehashed");
+        assertThat(loaded.getPasswordVersion()).isZero();
+        verify(userRepository).save(loaded);
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    private static User user(String username, int offsetSeconds) {
+        User user = new User(username, "secret", ERole.ROLE_CUSTOMER, EAuthProvider.LOCAL);
+        user.setId(UUID.randomUUID());
+        user.setCreatedDate(CREATED.plusSeconds(offsetSeconds));
+        return user;
+    }
+}
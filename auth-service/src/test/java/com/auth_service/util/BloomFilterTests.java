@@ -0,0 +1,58 @@
+package com.auth_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    @Test
+    void containsEveryAddedValueAndFewOthers() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            filter.put(id);
+            added.add(id);
+        }
+
+        assertThat(added).allMatch(filter::mightContain);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void containsAddedStrings() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("user" + i + "@bytebites.com");
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@bytebites.com")).isTrue();
+        }
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other" + i + "@bytebites.com"))
+                .count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void sizesBitsAndHashesFromExpectedInsertions() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.001);
+
+        assertThat(filter.bitSize()).isBetween(1_400_000L, 1_500_000L);
+        assertThat(filter.hashCount()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,127 @@
+package com.auth_service.util;
+
+import com.auth_service.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void hashesOnThePoolAndRecordsTimings() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4,
+                Duration.ofSeconds(5), registry)) {
+            String hash = encoder.encode("secret");
+
+            assertThat(encoder.matches("secret", hash)).isTrue();
+            assertThat(encoder.matches("wrong", hash)).isFalse();
+            assertThat(registry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+            assertThat(registry.get("auth.password.queue.wait").timer().count()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void rejectsFastOnceWorkersAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(5), registry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            started.await(5, TimeUnit.SECONDS);
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (registry.get("auth.password.queue.size").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(ServiceBusyException.class);
+            assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+        }
+    }
+
+    @Test
+    void hashesAbandonedByTimedOutCallersStopConsumingWorkers() throws Exception {
+        List<String> hashed = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashed.add(rawPassword.toString());
+                if (rawPassword.toString().equals("slow")) {
+                    started.countDown();
+                    // Like BCrypt, keeps hashing when interrupted; the latch only shows the interrupt arrived
+                    while (release.getCount() > 0) {
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                        }
+                    }
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofMillis(200), registry)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("slow"));
+            started.await(5, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> encoder.encode("queued")).isInstanceOf(ServiceBusyException.class);
+            assertThatThrownBy(running::join).hasCauseInstanceOf(ServiceBusyException.class);
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            release.countDown();
+            assertThat(encoder.encode("next")).isEqualTo("next");
+            assertThat(hashed).containsExactly("slow", "next");
+        }
+    }
+
+    @Test
+    void hashesMadeWithALowerCostAreUpgraded() {
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1,
+                Duration.ofSeconds(5), registry)) {
+            assertThat(encoder.upgradeEncoding(oldHash)).isTrue();
+            assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.jwt_codec;
+
+import java.util.Arrays;
+
+/**
+ * Unpadded Base64URL that reads from a {@link CharSequence} and writes into caller-supplied arrays, so the
+ * hot path allocates nothing.
+ */
+final class Base64Url {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private Base64Url() {
+    }
+
+    static int encodedLength(int bytes) {
+        return (bytes * 4 + 2) / 3;
+    }
+
+    /**
+     * Returns the decoded size of {@code chars} characters, or {@code -1} if no unpadded encoding has that length.
+     */
+    static int decodedLength(int chars) {
+        return chars % 4 == 1 ? -1 : chars * 3 / 4;
+    }
+
+    /**
+     * Encodes {@code src[srcOff, srcOff + len)} into {@code dst} at {@code dstOff} and returns the offset after it.
+     */
+    static int encode(byte[] src, int srcOff, int len, byte[] dst, int dstOff) {
+        int end = srcOff + len;
+        int i = srcOff;
+        int o = dstOff;
+        while (end - i >= 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[o++] = ALPHABET[bits >>> 18];
+            dst[o++] = ALPHABET[bits >>> 12 & 0x3f];
+            dst[o++] = ALPHABET[bits >>> 6 & 0x3f];
+            dst[o++] = ALPHABET[bits & 0x3f];
+            i += 3;
+        }
+        if (end - i == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[o++] = ALPHABET[bits >>> 18];
+            dst[o++] = ALPHABET[bits >>> 12 & 0x3f];
+            dst[o++] = ALPHABET[bits >>> 6 & 0x3f];
+        } else if (end - i == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            dst[o++] = ALPHABET[bits >>> 18];
+            dst[o++] = ALPHABET[bits >>> 12 & 0x3f];
+        }
+        return o;
+    }
+
+    /**
+     * Decodes {@code src[from, to)} into {@code dst} and returns the number of bytes written, or {@code -1}
+     * if the input is not valid unpadded Base64URL. {@code dst} must hold {@link #decodedLength} bytes.
+     */
+    static int decode(CharSequence src, int from, int to, byte[] dst) {
+        int o = 0;
+        int i = from;
+        while (to - i >= 4) {
+            int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12
+                    | value(src.charAt(i + 2)) << 6 | value(src.charAt(i + 3));
+            if (bits < 0) {
+                return -1;
+            }
+            dst[o++] = (byte) (bits >>> 16);
+            dst[o++] = (byte) (bits >>> 8);
+            dst[o++] = (byte) bits;
+            i += 4;
+        }
+        int remaining = to - i;
+        if (remaining == 1) {
+            return -1;
+        }
+        if (remaining == 2) {
+            int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12;
+            if (bits < 0) {
+                return -1;
+            }
+            dst[o++] = (byte) (bits >>> 16);
+        } else if (remaining == 3) {
+            int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12 | value(src.charAt(i + 2)) << 6;
+            if (bits < 0) {
+                return -1;
+            }
+            dst[o++] = (byte) (bits >>> 16);
+            dst[o++] = (byte) (bits >>> 8);
+        }
+        return o;
+    }
+
+    // -1 for anything outside the alphabet, which makes the OR-ed group negative
+    private static int value(char c) {
+        return c < 128 ? VALUES[c] : -1;
+    }
+}
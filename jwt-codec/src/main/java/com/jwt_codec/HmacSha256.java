@@ -0,0 +1,83 @@
+package com.jwt_codec;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+/**
+ * One HMAC-SHA256 key and the per-thread state that uses it: an initialized {@link Mac} and scratch buffers.
+ * <p>
+ * Platform threads (Netty event loops, servlet pools) keep their state in a {@link ThreadLocal}. Virtual
+ * threads are short-lived and numerous, so they get fresh state cloned from a prototype instead of pinning
+ * buffers to threads that will never run again.
+ */
+final class HmacSha256 {
+
+    static final String ALGORITHM = "HmacSHA256";
+    static final int DIGEST_LENGTH = 32;
+
+    // Scratch grows to fit the largest token seen, up to this size; bigger tokens use one-off arrays
+    private static final int MAX_RETAINED_SCRATCH = 8 * 1024;
+
+    private final Mac prototype;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(this::newScratch);
+
+    HmacSha256(byte[] key) {
+        // Same floor as jjwt's Keys.hmacShaKeyFor, so both reject the same secrets
+        if (key == null || key.length < DIGEST_LENGTH) {
+            throw new IllegalArgumentException("HS256 keys must be at least 256 bits");
+        }
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    Scratch scratch() {
+        return Thread.currentThread().isVirtual() ? newScratch() : scratch.get();
+    }
+
+    private Scratch newScratch() {
+        try {
+            return new Scratch((Mac) prototype.clone());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support cloning", e);
+        }
+    }
+
+    static final class Scratch {
+
+        final Mac mac;
+        final byte[] digest = new byte[DIGEST_LENGTH];
+        final byte[] signature = new byte[DIGEST_LENGTH];
+        final StringBuilder json = new StringBuilder(256);
+        private byte[] input = new byte[512];
+        private byte[] payload = new byte[512];
+
+        private Scratch(Mac mac) {
+            this.mac = mac;
+        }
+
+        byte[] input(int size) {
+            if (size <= input.length) {
+                return input;
+            }
+            if (size > MAX_RETAINED_SCRATCH) {
+                return new byte[size];
+            }
+            return input = new byte[size];
+        }
+
+        byte[] payload(int size) {
+            if (size <= payload.length) {
+                return payload;
+            }
+            if (size > MAX_RETAINED_SCRATCH) {
+                return new byte[size];
+            }
+            return payload = new byte[size];
+        }
+    }
+}
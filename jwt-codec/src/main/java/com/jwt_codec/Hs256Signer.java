@@ -0,0 +1,121 @@
+package com.jwt_codec;
+
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Signs {@link JwtClaims} as HS256 JWS compact tokens that jjwt and {@link Hs256Verifier} both accept.
+ * <p>
+ * The header is always {@code {"alg":"HS256"}}, as jjwt writes it, and is encoded once. Claims are written in
+ * the order and with the escaping jjwt 0.11.5 and Jackson produce for auth-service's claims, so the same
+ * claims give the same token string. Null claims and zero times are left out. Thread-safe; on platform threads a signature allocates only the returned string.
+ */
+public final class Hs256Signer {
+
+    static final String HEADER = "eyJhbGciOiJIUzI1NiJ9";
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final HmacSha256 hmac;
+
+    public Hs256Signer(byte[] key) {
+        this.hmac = new HmacSha256(key);
+    }
+
+    public String sign(JwtClaims claims) {
+        HmacSha256.Scratch scratch = hmac.scratch();
+
+        StringBuilder json = scratch.json;
+        json.setLength(0);
+        json.append('{');
+        // jjwt copies auth-service's HashMap of custom claims, which iterates in this order
+        appendString(json, "roles", claims.roles());
+        appendString(json, "userId", claims.userId());
+        appendString(json, "email", claims.email());
+        appendString(json, "sub", claims.subject());
+        appendNumber(json, "iat", claims.issuedAt());
+        appendNumber(json, "exp", claims.expiresAt());
+        json.append('}');
+
+        int payloadLength = json.length();
+        byte[] payload = scratch.payload(payloadLength);
+        if (!copyAscii(json, payload)) {
+            payload = json.toString().getBytes(StandardCharsets.UTF_8);
+            payloadLength = payload.length;
+        }
+        int signingLength = HEADER_BYTES.length + 1 + Base64Url.encodedLength(payloadLength);
+        int tokenLength = signingLength + 1 + Base64Url.encodedLength(HmacSha256.DIGEST_LENGTH);
+
+        byte[] token = scratch.input(tokenLength);
+        System.arraycopy(HEADER_BYTES, 0, token, 0, HEADER_BYTES.length);
+        token[HEADER_BYTES.length] = '.';
+        Base64Url.encode(payload, 0, payloadLength, token, HEADER_BYTES.length + 1);
+
+        try {
+            scratch.mac.update(token, 0, signingLength);
+            scratch.mac.doFinal(scratch.digest, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        token[signingLength] = '.';
+        Base64Url.encode(scratch.digest, 0, HmacSha256.DIGEST_LENGTH, token, signingLength + 1);
+
+        return new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Copies pure-ASCII JSON, the usual case, straight into {@code bytes}. Returns {@code false} if the JSON
+     * needs the JDK's UTF-8 encoder instead.
+     */
+    private static boolean copyAscii(StringBuilder json, byte[] bytes) {
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (c > 0x7f) {
+                return false;
+            }
+            bytes[i] = (byte) c;
+        }
+        return true;
+    }
+
+    private static void appendString(StringBuilder json, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        separate(json).append('"').append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        // Jackson's form: upper-case hex
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static void appendNumber(StringBuilder json, String name, long value) {
+        if (value != 0) {
+            separate(json).append('"').append(name).append("\":").append(value);
+        }
+    }
+
+    private static StringBuilder separate(StringBuilder json) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        return json;
+    }
+}
@@ -0,0 +1,166 @@
+package com.jwt_codec;
+
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies HS256 JWS compact tokens and extracts {@link JwtClaims}. Accepts tokens produced by
+ * {@link Hs256Signer} and by jjwt with the same key, and rejects the same tokens jjwt's
+ * {@code parseClaimsJws} would: other algorithms, unsigned tokens, bad signatures, expired or not-yet-valid
+ * tokens.
+ * <p>
+ * Thread-safe. On platform threads a verification allocates only the claim strings it returns.
+ */
+public final class Hs256Verifier {
+
+    private static final byte[][] HEADER_KEYS = {bytes("alg"), bytes("crit")};
+    private static final int ALG = 0;
+    private static final int CRIT = 1;
+
+    private static final byte[][] CLAIM_KEYS = {
+            bytes("sub"), bytes("userId"), bytes("email"), bytes("roles"), bytes("iat"), bytes("exp"), bytes("nbf")};
+    private static final int SUB = 0;
+    private static final int USER_ID = 1;
+    private static final int EMAIL = 2;
+    private static final int ROLES = 3;
+    private static final int IAT = 4;
+    private static final int EXP = 5;
+    private static final int NBF = 6;
+
+    private static final int SIGNATURE_CHARS = Base64Url.encodedLength(HmacSha256.DIGEST_LENGTH);
+
+    private final HmacSha256 hmac;
+
+    public Hs256Verifier(byte[] key) {
+        this.hmac = new HmacSha256(key);
+    }
+
+    public JwtClaims verify(String token) {
+        return verify(token, System.currentTimeMillis());
+    }
+
+    public JwtClaims verify(String token, long nowMillis) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidJwtException("JWT is empty");
+        }
+        int length = token.length();
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new InvalidJwtException("JWT must consist of header, payload and signature");
+        }
+        if (secondDot == length - 1) {
+            throw new InvalidJwtException("Unsigned JWTs are not accepted");
+        }
+
+        HmacSha256.Scratch scratch = hmac.scratch();
+        if (!isStandardHeader(token, firstDot)) {
+            checkHeader(token, firstDot, scratch);
+        }
+
+        // The signing input is ASCII by construction, so it is copied rather than charset-encoded
+        byte[] input = scratch.input(secondDot);
+        for (int i = 0; i < secondDot; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7f) {
+                throw new InvalidJwtException("JWT contains non-ASCII characters");
+            }
+            input[i] = (byte) c;
+        }
+        try {
+            scratch.mac.update(input, 0, secondDot);
+            scratch.mac.doFinal(scratch.digest, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (length - secondDot - 1 != SIGNATURE_CHARS
+                || Base64Url.decode(token, secondDot + 1, length, scratch.signature) != HmacSha256.DIGEST_LENGTH
+                || !constantTimeEquals(scratch.digest, scratch.signature)) {
+            throw new InvalidJwtException("JWT signature does not match");
+        }
+
+        JwtClaims claims = readClaims(token, firstDot + 1, secondDot, scratch, nowMillis);
+        if (claims.expiresAt() != 0 && nowMillis > claims.expiresAtMillis()) {
+            throw new JwtExpiredException("JWT expired at " + claims.expiresAt());
+        }
+        return claims;
+    }
+
+    private static JwtClaims readClaims(String token, int from, int to, HmacSha256.Scratch scratch,
+                                        long nowMillis) {
+        int size = Base64Url.decodedLength(to - from);
+        byte[] payload = size < 0 ? null : scratch.payload(size);
+        int decoded = payload == null ? -1 : Base64Url.decode(token, from, to, payload);
+        if (decoded < 0) {
+            throw new InvalidJwtException("JWT payload is not valid Base64URL");
+        }
+
+        String subject = null;
+        String userId = null;
+        String email = null;
+        String roles = null;
+        long issuedAt = 0;
+        long expiresAt = 0;
+        long notBefore = 0;
+
+        JsonReader reader = new JsonReader(payload, decoded);
+        reader.beginObject();
+        for (int key; (key = reader.nextKey(CLAIM_KEYS)) != JsonReader.END; ) {
+            switch (key) {
+                case SUB -> subject = reader.readString();
+                case USER_ID -> userId = reader.readString();
+                case EMAIL -> email = reader.readString();
+                case ROLES -> roles = reader.readString();
+                case IAT -> issuedAt = reader.readLong();
+                case EXP -> expiresAt = reader.readLong();
+                case NBF -> notBefore = reader.readLong();
+                default -> reader.skipValue();
+            }
+        }
+        if (notBefore != 0 && nowMillis < notBefore * 1000L) {
+            throw new InvalidJwtException("JWT is not valid before " + notBefore);
+        }
+        return new JwtClaims(subject, userId, email, roles, issuedAt, expiresAt);
+    }
+
+    private static boolean isStandardHeader(String token, int firstDot) {
+        return firstDot == Hs256Signer.HEADER.length()
+                && token.regionMatches(0, Hs256Signer.HEADER, 0, firstDot);
+    }
+
+    private static void checkHeader(String token, int firstDot, HmacSha256.Scratch scratch) {
+        int size = Base64Url.decodedLength(firstDot);
+        byte[] header = size < 0 ? null : scratch.payload(size);
+        int decoded = header == null ? -1 : Base64Url.decode(token, 0, firstDot, header);
+        if (decoded < 0) {
+            throw new InvalidJwtException("JWT header is not valid Base64URL");
+        }
+
+        String algorithm = null;
+        JsonReader reader = new JsonReader(header, decoded);
+        reader.beginObject();
+        for (int key; (key = reader.nextKey(HEADER_KEYS)) != JsonReader.END; ) {
+            switch (key) {
+                case ALG -> algorithm = reader.readString();
+                case CRIT -> throw new InvalidJwtException("JWT critical header parameters are not supported");
+                default -> reader.skipValue();
+            }
+        }
+        if (!"HS256".equals(algorithm)) {
+            throw new InvalidJwtException("Unsupported JWT algorithm: " + algorithm);
+        }
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = 0;
+        for (int i = 0; i < a.length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,11 @@
+package com.jwt_codec;
+
+/**
+ * Thrown when a token is malformed, uses another algorithm, or its signature does not match.
+ */
+public class InvalidJwtException extends RuntimeException {
+
+    public InvalidJwtException(String message) {
+        super(message);
+    }
+}
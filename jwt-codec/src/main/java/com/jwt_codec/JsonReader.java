@@ -0,0 +1,278 @@
+package com.jwt_codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull reader for the flat JSON objects in JWT headers and payloads. Keys are matched against a fixed
+ * table without creating strings; values of unknown keys, including nested objects and arrays, are skipped.
+ */
+final class JsonReader {
+
+    static final int UNKNOWN_KEY = -1;
+    static final int END = -2;
+
+    private final byte[] buf;
+    private final int end;
+    private int pos;
+    private boolean first = true;
+
+    JsonReader(byte[] buf, int length) {
+        this.buf = buf;
+        this.end = length;
+    }
+
+    void beginObject() {
+        skipWhitespace();
+        expect('{');
+    }
+
+    /**
+     * Advances to the next member and returns the index of its key in {@code keys}, {@link #UNKNOWN_KEY},
+     * or {@link #END} once the object is closed. The reader is then positioned at the member's value.
+     */
+    int nextKey(byte[][] keys) {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            skipWhitespace();
+            if (pos != end) {
+                throw malformed();
+            }
+            return END;
+        }
+        if (!first) {
+            expect(',');
+            skipWhitespace();
+        }
+        first = false;
+
+        expect('"');
+        int start = pos;
+        while (pos < end && buf[pos] != '"') {
+            if (buf[pos] == '\\') {
+                // Escaped keys never match the plain ASCII names we look for
+                pos = start - 1;
+                skipString();
+                afterKey();
+                return UNKNOWN_KEY;
+            }
+            pos++;
+        }
+        if (pos >= end) {
+            throw malformed();
+        }
+        int length = pos - start;
+        pos++;
+        afterKey();
+
+        for (int k = 0; k < keys.length; k++) {
+            if (keys[k].length == length && regionEquals(keys[k], start)) {
+                return k;
+            }
+        }
+        return UNKNOWN_KEY;
+    }
+
+    /**
+     * Reads a string or {@code null} value.
+     */
+    String readString() {
+        skipWhitespace();
+        if (peek() == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+        expect('"');
+        int start = pos;
+        boolean ascii = true;
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == '"') {
+                String value = new String(buf, start, pos - start,
+                        ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+                pos++;
+                return value;
+            }
+            if (b == '\\') {
+                return readEscapedString(start);
+            }
+            if (b < 0) {
+                ascii = false;
+            } else if (b < 0x20) {
+                throw malformed();
+            }
+            pos++;
+        }
+        throw malformed();
+    }
+
+    /**
+     * Reads a numeric value as a whole number of seconds; fractions are truncated.
+     */
+    long readLong() {
+        skipWhitespace();
+        int start = pos;
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+            if (++digits > 18) {
+                throw malformed();
+            }
+            value = value * 10 + (buf[pos++] - '0');
+        }
+        if (digits == 0) {
+            throw malformed();
+        }
+        if (pos < end && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) {
+            // Rare in practice: let the JDK handle fractions and exponents
+            while (pos < end && "+-.eE0123456789".indexOf(buf[pos]) >= 0) {
+                pos++;
+            }
+            try {
+                return (long) Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.ISO_8859_1));
+            } catch (NumberFormatException e) {
+                throw malformed();
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    void skipValue() {
+        skipWhitespace();
+        int depth = 0;
+        do {
+            byte b = peek();
+            switch (b) {
+                case '"' -> skipString();
+                case '{', '[' -> {
+                    depth++;
+                    pos++;
+                }
+                case '}', ']' -> {
+                    if (--depth < 0) {
+                        throw malformed();
+                    }
+                    pos++;
+                }
+                default -> pos++;
+            }
+            skipWhitespace();
+        } while (depth > 0 || (pos < end && buf[pos] != ',' && buf[pos] != '}'));
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder value = new StringBuilder(new String(buf, start, pos - start, StandardCharsets.UTF_8));
+        int runStart = pos;
+        while (pos < end) {
+            byte b = buf[pos];
+            if (b == '"') {
+                value.append(new String(buf, runStart, pos - runStart, StandardCharsets.UTF_8));
+                pos++;
+                return value.toString();
+            }
+            if (b != '\\') {
+                if (b >= 0 && b < 0x20) {
+                    throw malformed();
+                }
+                pos++;
+                continue;
+            }
+            value.append(new String(buf, runStart, pos - runStart, StandardCharsets.UTF_8));
+            if (pos + 1 >= end) {
+                throw malformed();
+            }
+            byte escape = buf[pos + 1];
+            pos += 2;
+            switch (escape) {
+                case '"' -> value.append('"');
+                case '\\' -> value.append('\\');
+                case '/' -> value.append('/');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > end) {
+                        throw malformed();
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(buf[pos++], 16);
+                        if (digit < 0) {
+                            throw malformed();
+                        }
+                        code = code << 4 | digit;
+                    }
+                    value.append((char) code);
+                }
+                default -> throw malformed();
+            }
+            runStart = pos;
+        }
+        throw malformed();
+    }
+
+    private void skipString() {
+        expect('"');
+        while (pos < end) {
+            byte b = buf[pos++];
+            if (b == '\\') {
+                pos++;
+            } else if (b == '"') {
+                return;
+            }
+        }
+        throw malformed();
+    }
+
+    private void afterKey() {
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+    }
+
+    private boolean regionEquals(byte[] key, int start) {
+        for (int i = 0; i < key.length; i++) {
+            if (buf[start + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
+        }
+    }
+
+    private void expect(char c) {
+        if (pos >= end || buf[pos] != c) {
+            throw malformed();
+        }
+        pos++;
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw malformed();
+        }
+        return buf[pos];
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && (buf[pos] == ' ' || buf[pos] == '\t' || buf[pos] == '\n' || buf[pos] == '\r')) {
+            pos++;
+        }
+    }
+
+    private static InvalidJwtException malformed() {
+        return new InvalidJwtException("Malformed JWT JSON");
+    }
+}
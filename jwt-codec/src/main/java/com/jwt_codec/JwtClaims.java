@@ -0,0 +1,18 @@
+package com.jwt_codec;
+
+/**
+ * The claims ByteBites access tokens carry. Times are seconds since the epoch, {@code 0} when absent.
+ *
+ * @param subject   {@code sub}, the username
+ * @param userId    {@code userId}
+ * @param email     {@code email}
+ * @param roles     {@code roles}
+ * @param issuedAt  {@code iat}
+ * @param expiresAt {@code exp}
+ */
+public record JwtClaims(String subject, String userId, String email, String roles, long issuedAt, long expiresAt) {
+
+    public long expiresAtMillis() {
+        return expiresAt * 1000L;
+    }
+}
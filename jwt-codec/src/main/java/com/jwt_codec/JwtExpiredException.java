@@ -0,0 +1,11 @@
+package com.jwt_codec;
+
+/**
+ * Thrown for a correctly signed token whose {@code exp} has passed.
+ */
+public class JwtExpiredException extends InvalidJwtException {
+
+    public JwtExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,150 @@
+package com.jwt_codec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Hs256CodecTests {
+
+    private static final byte[] KEY = "test-secret-key-that-is-at-least-256-bits-long!!".getBytes(StandardCharsets.UTF_8);
+    private static final long NOW = 1_750_000_000L;
+
+    private final SecretKey jjwtKey = Keys.hmacShaKeyFor(KEY);
+    private final JwtParser jjwtParser = Jwts.parserBuilder().setSigningKey(jjwtKey).build();
+    private final Hs256Signer signer = new Hs256Signer(KEY);
+    private final Hs256Verifier verifier = new Hs256Verifier(KEY);
+
+    @Test
+    void acceptsTokensSignedByJjwt() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", "550e8400-e29b-41d4-a716-446655440000");
+        claims.put("email", "owner@bytebites.com");
+        claims.put("roles", "ROLE_RESTAURANT_OWNER");
+        String token = Jwts.builder()
+                .setClaims(claims)
+                .setSubject("owner@bytebites.com")
+                .setIssuedAt(new Date(NOW * 1000))
+                .setExpiration(new Date((NOW + 900) * 1000))
+                .signWith(jjwtKey, SignatureAlgorithm.HS256)
+                .compact();
+
+        JwtClaims verified = verifier.verify(token, NOW * 1000);
+
+        assertThat(verified).isEqualTo(new JwtClaims("owner@bytebites.com", "550e8400-e29b-41d4-a716-446655440000",
+                "owner@bytebites.com", "ROLE_RESTAURANT_OWNER", NOW, NOW + 900));
+    }
+
+    @Test
+    void jjwtAcceptsTokensSignedHere() {
+        JwtClaims claims = new JwtClaims("chef \"é\"@bytebites.com", "42", "chef@bytebites.com", "ROLE_ADMIN",
+                NOW, Long.MAX_VALUE / 1000 - 1);
+
+        String token = signer.sign(claims);
+        Claims parsed = jjwtParser.parseClaimsJws(token).getBody();
+
+        assertThat(parsed.getSubject()).isEqualTo("chef \"é\"@bytebites.com");
+        assertThat(parsed.get("userId", String.class)).isEqualTo("42");
+        assertThat(parsed.get("roles", String.class)).isEqualTo("ROLE_ADMIN");
+        assertThat(parsed.getIssuedAt()).isEqualTo(new Date(NOW * 1000));
+        assertThat(verifier.verify(token, NOW * 1000)).isEqualTo(claims);
+    }
+
+    @Test
+    void producesTheSameTokensAsJjwt() {
+        for (String email : new String[]{"owner@bytebites.com", "chef \"é\"\\ \t\b\f\u0001\u001f/@bytebites.com"}) {
+            // Built the way auth-service built access tokens with jjwt
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("userId", "550e8400-e29b-41d4-a716-446655440000");
+            claims.put("email", email);
+            claims.put("roles", "ROLE_RESTAURANT_OWNER");
+            String jjwtToken = Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject(email)
+                    .setIssuedAt(new Date(NOW * 1000))
+                    .setExpiration(new Date((NOW + 900) * 1000))
+                    .signWith(jjwtKey, SignatureAlgorithm.HS256)
+                    .compact();
+
+            String token = signer.sign(new JwtClaims(email, "550e8400-e29b-41d4-a716-446655440000", email,
+                    "ROLE_RESTAURANT_OWNER", NOW, NOW + 900));
+
+            assertThat(token).isEqualTo(jjwtToken);
+        }
+    }
+
+    @Test
+    void rejectsExpiredTokensAfterCheckingSignature() {
+        String token = signer.sign(new JwtClaims("a", "1", "a", "ROLE_CUSTOMER", NOW, NOW + 60));
+
+        assertThat(verifier.verify(token, (NOW + 60) * 1000)).isNotNull();
+        assertThatThrownBy(() -> verifier.verify(token, (NOW + 60) * 1000 + 1))
+                .isInstanceOf(JwtExpiredException.class);
+        assertThatThrownBy(() -> verifier.verify(tamper(token), (NOW + 61) * 1000))
+                .isExactlyInstanceOf(InvalidJwtException.class);
+    }
+
+    @Test
+    void rejectsTamperedForeignAndMalformedTokens() {
+        String token = signer.sign(new JwtClaims("a", "1", "a", "ROLE_CUSTOMER", NOW, NOW + 60));
+        String[] parts = token.split("\\.");
+        String elevated = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"a\",\"roles\":\"ROLE_ADMIN\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8));
+        String none = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> verifier.verify(parts[0] + "." + elevated + "." + parts[2], NOW * 1000))
+                .isInstanceOf(InvalidJwtException.class);
+        assertThatThrownBy(() -> verifier.verify(none + "." + parts[1] + "." + parts[2], NOW * 1000))
+                .isInstanceOf(InvalidJwtException.class);
+        assertThatThrownBy(() -> verifier.verify(parts[0] + "." + parts[1] + ".", NOW * 1000))
+                .isInstanceOf(InvalidJwtException.class);
+        assertThatThrownBy(() -> verifier.verify(new Hs256Signer(
+                "another-secret-key-that-is-at-least-256-bits!!".getBytes(StandardCharsets.UTF_8))
+                .sign(new JwtClaims("a", null, null, null, 0, 0)), NOW * 1000))
+                .isInstanceOf(InvalidJwtException.class);
+        assertThatThrownBy(() -> verifier.verify("not-a-jwt", NOW * 1000)).isInstanceOf(InvalidJwtException.class);
+        assertThatThrownBy(() -> verifier.verify("a.b.c.d", NOW * 1000)).isInstanceOf(InvalidJwtException.class);
+    }
+
+    @Test
+    void acceptsOtherHeaderLayoutsAndSkipsUnknownClaims() {
+        String token = Jwts.builder()
+                .setHeaderParam("typ", "JWT")
+                .setSubject("a@bytebites.com")
+                .claim("nested", Map.of("list", new int[]{1, 2, 3}, "text", "}{\\\""))
+                .claim("roles", "ROLE_CUSTOMER")
+                .setExpiration(new Date((NOW + 60) * 1000))
+                .signWith(jjwtKey, SignatureAlgorithm.HS256)
+                .compact();
+
+        JwtClaims claims = verifier.verify(token, NOW * 1000);
+
+        assertThat(claims.subject()).isEqualTo("a@bytebites.com");
+        assertThat(claims.roles()).isEqualTo("ROLE_CUSTOMER");
+        assertThat(claims.userId()).isNull();
+    }
+
+    @Test
+    void rejectsShortKeysLikeJjwt() {
+        assertThatThrownBy(() -> new Hs256Verifier("short".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String tamper(String token) {
+        char last = token.charAt(token.length() - 1);
+        return token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+}
@@ -0,0 +1,22 @@
+package com.order_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+@Configuration
+@ConditionalOnProperty(prefix = "service-auth", name = "client-secret")
+public class ServiceAuthConfig {
+
+    public static final String TOKEN_CLIENT_BUILDER = "serviceTokenRestClientBuilder";
+
+    // Resolves http://auth-service through discovery for ServiceTokenProvider. Not a default candidate, so
+    // Boot's own RestClient.Builder is still configured for everything else
+    @Bean(name = TOKEN_CLIENT_BUILDER, defaultCandidate = false)
+    @LoadBalanced
+    public RestClient.Builder serviceTokenRestClientBuilder() {
+        return RestClient.builder();
+    }
+}
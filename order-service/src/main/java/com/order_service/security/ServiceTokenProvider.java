@@ -0,0 +1,193 @@
+package com.order_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import com.order_service.config.ServiceAuthConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This service's own access token for calls to other services, obtained from auth-service with the client
+ * credentials grant and kept in memory.
+ * <p>
+ * A background check replaces the token once {@code refresh-at} of its lifetime has passed, well before it
+ * expires, so a request only ever reads the cached token. Only the very first call, or one made after
+ * auth-service has been unreachable for a whole token lifetime, fetches a token itself; concurrent callers
+ * then wait for that single fetch. A failed refresh keeps the current token, which stays valid until it
+ * expires, and is retried on the next check.
+ * <p>
+ * Only created when {@code service-auth.client-secret} is configured, so the service still starts without
+ * service credentials.
+ */
+@Component
+@ConditionalOnProperty(prefix = "service-auth", name = "client-secret")
+@Slf4j
+public class ServiceTokenProvider {
+
+    private final RestClient restClient;
+    private final String clientId;
+    private final String clientSecret;
+    private final double refreshAt;
+    private final Clock clock;
+    private final ReentrantLock fetchLock = new ReentrantLock();
+
+    private final Counter fetched;
+    private final Counter fetchFailed;
+
+    private volatile CachedToken current;
+
+    @Autowired
+    public ServiceTokenProvider(@Qualifier(ServiceAuthConfig.TOKEN_CLIENT_BUILDER) RestClient.Builder tokenClientBuilder,
+                                @Value("${service-auth.token-uri:http://auth-service/auth/token}") String tokenUri,
+                                @Value("${service-auth.client-id:${spring.application.name}}") String clientId,
+                                @Value("${service-auth.client-secret}") String clientSecret,
+                                @Value("${service-auth.timeout:5s}") Duration timeout,
+                                @Value("${service-auth.refresh-at:0.8}") double refreshAt,
+                                MeterRegistry meterRegistry) {
+        this(tokenClientBuilder.baseUrl(tokenUri).requestFactory(requestFactory(timeout)).build(),
+                clientId, clientSecret, refreshAt, Clock.systemUTC(), meterRegistry);
+    }
+
+    ServiceTokenProvider(RestClient restClient, String clientId, String clientSecret, double refreshAt,
+                         Clock clock, MeterRegistry meterRegistry) {
+        if (refreshAt <= 0 || refreshAt >= 1) {
+            throw new IllegalArgumentException("service-auth.refresh-at must be between 0 and 1, was " + refreshAt);
+        }
+        this.restClient = restClient;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.refreshAt = refreshAt;
+        this.clock = clock;
+
+        this.fetched = fetches(meterRegistry, "success");
+        this.fetchFailed = fetches(meterRegistry, "failure");
+    }
+
+    /**
+     * Returns a token that is valid now, fetching one only if none is held.
+     */
+    public String getToken() {
+        CachedToken token = current;
+        if (token != null && token.isValidAt(clock.instant())) {
+            return token.value();
+        }
+
+        fetchLock.lock();
+        try {
+            token = current;
+            if (token != null && token.isValidAt(clock.instant())) {
+                // Another caller fetched while this one waited for the lock
+                return token.value();
+            }
+            return fetch().value();
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        refreshIfDue();
+    }
+
+    @Scheduled(fixedDelayString = "${service-auth.refresh-check-interval:5s}",
+            initialDelayString = "${service-auth.refresh-check-interval:5s}")
+    public void refreshIfDue() {
+        CachedToken token = current;
+        if (token != null && clock.instant().isBefore(token.refreshAt())) {
+            return;
+        }
+
+        fetchLock.lock();
+        try {
+            token = current;
+            if (token == null || !clock.instant().isBefore(token.refreshAt())) {
+                fetch();
+            }
+        } catch (RestClientException e) {
+            log.warn("Could not refresh service token for {}: {}", clientId, e.getMessage());
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    private CachedToken fetch() {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+
+        Instant requested = clock.instant();
+        TokenResponse response;
+        try {
+            response = restClient.post()
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .headers(headers -> headers.setBasicAuth(clientId, clientSecret))
+                    .body(form)
+                    .retrieve()
+                    .body(TokenResponse.class);
+        } catch (RestClientException e) {
+            fetchFailed.increment();
+            throw e;
+        }
+        if (response == null || response.data() == null || response.data().accessToken() == null
+                || response.data().expiresIn() <= 0) {
+            fetchFailed.increment();
+            throw new RestClientException("auth-service returned no service token");
+        }
+
+        // Lifetimes are measured from when the request was sent, so a slow response errs on the early side
+        Duration lifetime = Duration.ofSeconds(response.data().expiresIn());
+        CachedToken token = new CachedToken(response.data().accessToken(),
+                requested.plusMillis((long) (lifetime.toMillis() * refreshAt)),
+                requested.plus(lifetime));
+        current = token;
+        fetched.increment();
+        log.debug("Fetched service token for {}, valid for {}", clientId, lifetime);
+        return token;
+    }
+
+    private static SimpleClientHttpRequestFactory requestFactory(Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        return requestFactory;
+    }
+
+    private static Counter fetches(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("service-auth.token.fetches")
+                .description("Requests to auth-service for this service's own access token")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedToken(String value, Instant refreshAt, Instant expiresAt) {
+
+        boolean isValidAt(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+
+    // auth-service wraps every response in ApiResponseDTO
+    record TokenResponse(TokenData data) {
+    }
+
+    record TokenData(String accessToken, String tokenType, long expiresIn) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.order_service.config;
+
+import com.order_service.security.ServiceTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceAuthConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // Converts the @Value durations as SpringApplication would
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(RestClientAutoConfiguration.class,
+                    HttpMessageConvertersAutoConfiguration.class))
+            .withUserConfiguration(ServiceAuthConfig.class, ServiceTokenProvider.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void startsWithoutServiceCredentials() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(ServiceTokenProvider.class);
+            assertThat(context).doesNotHaveBean(ServiceAuthConfig.TOKEN_CLIENT_BUILDER);
+        });
+    }
+
+    @Test
+    void tokenClientBuilderDoesNotReplaceBootsBuilder() {
+        contextRunner.withPropertyValues("service-auth.client-secret=secret").run(context -> {
+            assertThat(context).hasSingleBean(ServiceTokenProvider.class);
+            assertThat(context).hasBean(ServiceAuthConfig.TOKEN_CLIENT_BUILDER);
+            assertThat(context).hasBean("restClientBuilder");
+            assertThat(context.getBean(RestClient.Builder.class))
+                    .isNotSameAs(context.getBean(ServiceAuthConfig.TOKEN_CLIENT_BUILDER));
+        });
+    }
+}
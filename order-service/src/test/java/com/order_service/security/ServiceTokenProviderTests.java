@@ -0,0 +1,151 @@
+package com.order_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ServiceTokenProviderTests {
+
+    private static final String TOKEN_URI = "http://auth-service/auth/token";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockRestServiceServer authService;
+    private ServiceTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl(TOKEN_URI);
+        authService = MockRestServiceServer.bindTo(builder).build();
+        provider = new ServiceTokenProvider(builder.build(), "order-service", "secret", 0.8, clock, meterRegistry);
+    }
+
+    @Test
+    void concurrentColdCallsShareOneFetch() throws Exception {
+        String basic = Base64.getEncoder().encodeToString("order-service:secret".getBytes(StandardCharsets.UTF_8));
+        authService.expect(once(), requestTo(TOKEN_URI))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Basic " + basic))
+                .andExpect(content().formDataContains(Map.of("grant_type", "client_credentials")))
+                .andRespond(token("first", 900));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] calls = new Future<?>[8];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = executor.submit(() -> {
+                    start.await();
+                    return provider.getToken();
+                });
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(provider.getToken()).isEqualTo("first");
+        authService.verify();
+    }
+
+    @Test
+    void tokenIsReplacedInTheBackgroundBeforeItExpires() {
+        authService.expect(once(), requestTo(TOKEN_URI)).andRespond(token("first", 900));
+        authService.expect(once(), requestTo(TOKEN_URI)).andRespond(token("second", 900));
+
+        provider.refreshIfDue();
+        clock.advance(Duration.ofSeconds(700));
+        provider.refreshIfDue();
+        assertThat(provider.getToken()).isEqualTo("first");
+
+        // 80% of 900s
+        clock.advance(Duration.ofSeconds(20));
+        provider.refreshIfDue();
+        assertThat(provider.getToken()).isEqualTo("second");
+        authService.verify();
+    }
+
+    @Test
+    void failedRefreshKeepsServingTheCurrentToken() {
+        authService.expect(once(), requestTo(TOKEN_URI)).andRespond(token("first", 900));
+        authService.expect(once(), requestTo(TOKEN_URI)).andRespond(withServerError());
+
+        provider.refreshIfDue();
+        clock.advance(Duration.ofSeconds(800));
+        provider.refreshIfDue();
+
+        assertThat(provider.getToken()).isEqualTo("first");
+        assertThat(meterRegistry.get("service-auth.token.fetches").tag("result", "failure").counter().count())
+                .isEqualTo(1);
+        authService.verify();
+    }
+
+    private static ResponseCreator token(String value, long expiresIn) {
+        String body = """
+                {"success":true,"message":"Token issued","statusCode":200,
+                 "data":{"accessToken":"%s","tokenType":"Bearer","expiresIn":%d}}
+                """.formatted(value, expiresIn);
+        return withSuccess(body, MediaType.APPLICATION_JSON);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
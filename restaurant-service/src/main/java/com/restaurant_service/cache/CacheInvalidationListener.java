@@ -0,0 +1,30 @@
+package com.restaurant_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies invalidations broadcast by other replicas. Each instance consumes from its own auto-delete queue
+ * bound to the fanout exchange (see {@code CacheConfig}), so every replica sees every message.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    private final RestaurantCaches caches;
+    private final CacheInvalidationMessaging messaging;
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (messaging.instanceId().equals(message.origin())) {
+            // Evicted locally when the write happened
+            return;
+        }
+        log.debug("Applying cache invalidation {} for restaurant {} from {}",
+                message.type(), message.restaurantId(), message.origin());
+        caches.apply(message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.restaurant_service.cache;
+
+/**
+ * Broadcast to every replica when a write makes cached reads stale.
+ *
+ * @param origin       instance id of the sender, which has already evicted locally
+ * @param type         what changed
+ * @param restaurantId the restaurant the change belongs to
+ */
+public record CacheInvalidationMessage(String origin, Type type, Long restaurantId) {
+
+    public enum Type {
+        RESTAURANT,
+        MENUS
+    }
+
+    static CacheInvalidationMessage restaurant(Long restaurantId) {
+        return new CacheInvalidationMessage(null, Type.RESTAURANT, restaurantId);
+    }
+
+    static CacheInvalidationMessage menus(Long restaurantId) {
+        return new CacheInvalidationMessage(null, Type.MENUS, restaurantId);
+    }
+
+    CacheInvalidationMessage from(String origin) {
+        return new CacheInvalidationMessage(origin, type, restaurantId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.restaurant_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Sends cache invalidations to the other replicas over the {@code restaurant.cache.invalidation} fanout
+ * exchange. Inside a transaction the message goes out after commit, so no replica reloads the old rows
+ * in between. A broker outage only delays other replicas until their entries expire; it never fails the write.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationMessaging {
+
+    public static final String EXCHANGE = "restaurant.cache.invalidation";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CacheInvalidationMessaging(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    void publish(CacheInvalidationMessage message) {
+        CacheInvalidationMessage outgoing = message.from(instanceId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(outgoing);
+                }
+            });
+        } else {
+            send(outgoing);
+        }
+    }
+
+    private void send(CacheInvalidationMessage message) {
+        try {
+            rabbitTemplate.convertAndSend(EXCHANGE, "", message);
+        } catch (AmqpException e) {
+            log.warn("Could not broadcast cache invalidation {} for restaurant {}: {}",
+                    message.type(), message.restaurantId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.restaurant_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A bounded Caffeine cache (W-TinyLFU eviction, expiry a fixed time after each entry is written) that loads
+ * misses through a caller-supplied loader, reporting {@code cache.gets}, {@code cache.evictions} and the rest
+ * of {@link CaffeineCacheMetrics} under its name.
+ * <p>
+ * A miss is loaded on the caller's thread outside any map lock, so a JDBC call never pins a virtual thread's
+ * carrier. Concurrent misses for one key share a single load, so an expired hot entry costs one query rather
+ * than one per waiting request. A load that overlaps an invalidation of its key is returned but not cached.
+ */
+public class ReadThroughCache<K, V> {
+
+    private final Cache<K, V> cache;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    public ReadThroughCache(String name, long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Returns the cached value, running {@code loader} only on a miss. Exceptions from the loader
+     * propagate and nothing is cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        try {
+            V value = loader.apply(key);
+            // Cache only if no invalidation ran during the load; invalidation removes the in-flight entry first
+            loading.computeIfPresent(key, (k, current) -> {
+                if (current != load) {
+                    return current;
+                }
+                if (value != null) {
+                    cache.put(k, value);
+                }
+                return null;
+            });
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loading.remove(key, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidateIf(key::equals);
+    }
+
+    /**
+     * Drops every entry whose key matches, now and, inside a transaction, again after it completes, so a
+     * request that reloads before the write is committed cannot leave the old state cached.
+     */
+    public void invalidateIf(Predicate<K> keys) {
+        drop(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(keys);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void drop(Predicate<K> keys) {
+        loading.keySet().removeIf(keys);
+        cache.asMap().keySet().removeIf(keys);
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // Requests that waited on a failed load see the loader's own exception
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.restaurant_service.cache;
+
+import com.restaurant_service.dto.response.MenuResponseDTO;
+import com.restaurant_service.dto.response.RestaurantResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Caches behind the public read endpoints: restaurants by id, pages of the restaurant listing and pages of
+ * each restaurant's menu.
+ * <p>
+ * Writes call {@link #restaurantChanged} or {@link #menusChanged}, which drop the affected entries here and
+ * broadcast the change through {@link CacheInvalidationMessaging} so the other replicas drop theirs. The TTLs
+ * bound how long an entry can be stale if a broadcast is lost.
+ */
+@Component
+@Slf4j
+public class RestaurantCaches {
+
+    private final ReadThroughCache<Long, RestaurantResponseDTO> restaurants;
+    private final ReadThroughCache<Pageable, Page<RestaurantResponseDTO>> restaurantPages;
+    private final ReadThroughCache<MenuPageKey, Page<MenuResponseDTO>> menuPages;
+    private final CacheInvalidationMessaging messaging;
+
+    public RestaurantCaches(@Value("${restaurant.cache.restaurants.max-size:10000}") long restaurantsMaxSize,
+                            @Value("${restaurant.cache.restaurants.ttl:10m}") Duration restaurantsTtl,
+                            @Value("${restaurant.cache.restaurant-pages.max-size:1000}") long restaurantPagesMaxSize,
+                            @Value("${restaurant.cache.restaurant-pages.ttl:1m}") Duration restaurantPagesTtl,
+                            @Value("${restaurant.cache.menu-pages.max-size:10000}") long menuPagesMaxSize,
+                            @Value("${restaurant.cache.menu-pages.ttl:5m}") Duration menuPagesTtl,
+                            CacheInvalidationMessaging messaging,
+                            MeterRegistry meterRegistry) {
+        this.restaurants = new ReadThroughCache<>("restaurants", restaurantsMaxSize, restaurantsTtl, meterRegistry);
+        this.restaurantPages = new ReadThroughCache<>("restaurantPages", restaurantPagesMaxSize, restaurantPagesTtl, meterRegistry);
+        this.menuPages = new ReadThroughCache<>("menuPages", menuPagesMaxSize, menuPagesTtl, meterRegistry);
+        this.messaging = messaging;
+    }
+
+    public ReadThroughCache<Long, RestaurantResponseDTO> restaurants() {
+        return restaurants;
+    }
+
+    public ReadThroughCache<Pageable, Page<RestaurantResponseDTO>> restaurantPages() {
+        return restaurantPages;
+    }
+
+    public ReadThroughCache<MenuPageKey, Page<MenuResponseDTO>> menuPages() {
+        return menuPages;
+    }
+
+    /**
+     * A restaurant was created, updated or deleted: its entry, every listing page and its menu pages,
+     * which embed the restaurant's summary, are stale.
+     */
+    public void restaurantChanged(Long restaurantId) {
+        evictRestaurant(restaurantId);
+        messaging.publish(CacheInvalidationMessage.restaurant(restaurantId));
+    }
+
+    /**
+     * A menu item of the restaurant was created, updated or deleted.
+     */
+    public void menusChanged(Long restaurantId) {
+        evictMenus(restaurantId);
+        messaging.publish(CacheInvalidationMessage.menus(restaurantId));
+    }
+
+    /**
+     * Applies an invalidation broadcast by another replica, without broadcasting it again.
+     */
+    void apply(CacheInvalidationMessage message) {
+        switch (message.type()) {
+            case RESTAURANT -> evictRestaurant(message.restaurantId());
+            case MENUS -> evictMenus(message.restaurantId());
+        }
+    }
+
+    private void evictRestaurant(Long restaurantId) {
+        restaurants.invalidate(restaurantId);
+        restaurantPages.invalidateIf(page -> true);
+        evictMenus(restaurantId);
+        log.debug("Evicted cached restaurant {}", restaurantId);
+    }
+
+    private void evictMenus(Long restaurantId) {
+        menuPages.invalidateIf(key -> key.restaurantId().equals(restaurantId));
+    }
+
+    public record MenuPageKey(Long restaurantId, Pageable pageable) {
+    }
+}
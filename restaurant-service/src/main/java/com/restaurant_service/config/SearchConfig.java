@@ -0,0 +1,24 @@
+package com.restaurant_service.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SearchConfig {
+
+    // Per-instance queue on the cache invalidation exchange, so reindexing does not hold up cache eviction
+    @Bean
+    public Queue searchIndexQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding searchIndexBinding(Queue searchIndexQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(searchIndexQueue).to(cacheInvalidationExchange);
+    }
+}
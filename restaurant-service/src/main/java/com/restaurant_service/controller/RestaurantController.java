@@ -3,14 +3,16 @@ package com.restaurant_service.controller;
 import com.restaurant_service.dto.request.MenuRequestDTO;
 import com.restaurant_service.dto.request.RestaurantRequestDTO;
 import com.restaurant_service.dto.response.ApiResponseDTO;
+import com.restaurant_service.dto.response.CursorPageDTO;
 import com.restaurant_service.dto.response.MenuResponseDTO;
 import com.restaurant_service.dto.response.RestaurantResponseDTO;
+import com.restaurant_service.dto.response.RestaurantSearchResultDTO;
 import com.restaurant_service.exception.RestaurantNotFoundException;
 import com.restaurant_service.exception.UnauthorizedException;
-import com.restaurant_service.mapper.RestaurantMapper;
 import com.restaurant_service.model.Restaurant;
 import com.restaurant_service.service.MenuService;
 import com.restaurant_service.service.RestaurantService;
+import com.restaurant_service.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -28,6 +30,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/restaurants")
 @RequiredArgsConstructor
@@ -36,23 +40,46 @@ import org.springframework.web.bind.annotation.*;
 public class RestaurantController {
     private final RestaurantService restaurantService;
     private final MenuService menuService;
-    private final RestaurantMapper restaurantMapper;
+    private final SearchService searchService;
 
     // ==================== PUBLIC ENDPOINTS ====================
 
     @GetMapping("/public")
-    @Operation(summary = "Get all restaurants", description = "Retrieve all restaurants with pagination (Public)")
+    @Operation(summary = "Get all restaurants", description = "Retrieve all restaurants with pagination (Public). " +
+            "With 'after', returns a keyset page ordered by name instead, without page numbers or totals")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved restaurants"),
-            @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+            @ApiResponse(responseCode = "400", description = "Invalid pagination parameters or cursor")
     })
-    public ResponseEntity<ApiResponseDTO<Page<RestaurantResponseDTO>>> getAllRestaurants(
+    public ResponseEntity<ApiResponseDTO<?>> getAllRestaurants(
+            @Parameter(description = "Keyset cursor: nextCursor of the previous page, or empty for the first page")
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "name") Pageable pageable) {
 
+        if (after != null) {
+            CursorPageDTO<RestaurantResponseDTO> restaurants =
+                    restaurantService.getRestaurantsAfter(after, pageable.getPageSize());
+            return ResponseEntity.ok(ApiResponseDTO.success("Restaurants retrieved successfully", restaurants));
+        }
+
         Page<RestaurantResponseDTO> restaurants = restaurantService.getAllRestaurants(pageable);
         return ResponseEntity.ok(ApiResponseDTO.success("Restaurants retrieved successfully", restaurants));
     }
 
+    @GetMapping("/public/search")
+    @Operation(summary = "Search restaurants", description = "Full-text search over restaurant names, types, " +
+            "locations and menu items, ranked by relevance; matches word prefixes and small typos (Public)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search results, best match first")
+    })
+    public ResponseEntity<ApiResponseDTO<List<RestaurantSearchResultDTO>>> searchRestaurants(
+            @Parameter(description = "Search terms; only the first 8 distinct terms are used", example = "pizza kigali") @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of results (at most 50)") @RequestParam(defaultValue = "20") int limit) {
+
+        List<RestaurantSearchResultDTO> results = searchService.search(query, limit);
+        return ResponseEntity.ok(ApiResponseDTO.success("Search completed successfully", results));
+    }
+
     @GetMapping("/public/{id}")
     @Operation(summary = "Get restaurant by ID", description = "Retrieve a specific restaurant by ID (Public)")
     @ApiResponses({
@@ -62,26 +89,32 @@ public class RestaurantController {
     public ResponseEntity<ApiResponseDTO<RestaurantResponseDTO>> getRestaurantById(
             @Parameter(description = "Restaurant ID") @PathVariable Long id) {
 
-        Restaurant restaurant = restaurantService.getRestaurantById(id)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + id));
-
-        RestaurantResponseDTO response = restaurantMapper.toResponseDTO(restaurant);
+        RestaurantResponseDTO response = restaurantService.getRestaurant(id);
         return ResponseEntity.ok(ApiResponseDTO.success("Restaurant retrieved successfully", response));
     }
 
     @GetMapping("/public/{restaurantId}/menus")
-    @Operation(summary = "Get restaurant menus", description = "Retrieve all menus for a specific restaurant (Public)")
+    @Operation(summary = "Get restaurant menus", description = "Retrieve all menus for a specific restaurant (Public). " +
+            "With 'after', returns a keyset page ordered by name instead, without page numbers or totals")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Menus retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "404", description = "Restaurant not found")
     })
-    public ResponseEntity<ApiResponseDTO<Page<MenuResponseDTO>>> getRestaurantMenus(
+    public ResponseEntity<ApiResponseDTO<?>> getRestaurantMenus(
             @Parameter(description = "Restaurant ID") @PathVariable Long restaurantId,
+            @Parameter(description = "Keyset cursor: nextCursor of the previous page, or empty for the first page")
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "name") Pageable pageable) {
 
         // Verify restaurant exists
-        restaurantService.getRestaurantById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId));
+        restaurantService.getRestaurant(restaurantId);
+
+        if (after != null) {
+            CursorPageDTO<MenuResponseDTO> menus =
+                    menuService.getRestaurantMenusAfter(restaurantId, after, pageable.getPageSize());
+            return ResponseEntity.ok(ApiResponseDTO.success("Menus retrieved successfully", menus));
+        }
 
         Page<MenuResponseDTO> menus = menuService.getRestaurantMenus(restaurantId, pageable);
         return ResponseEntity.ok(ApiResponseDTO.success("Menus retrieved successfully", menus));
@@ -128,15 +161,8 @@ public class RestaurantController {
             @Valid @RequestBody RestaurantRequestDTO request,
             @Parameter(hidden = true) @RequestHeader("X-User-Id") String userId) {
 
-        // Verify ownership
-        Restaurant restaurant = restaurantService.getRestaurantById(id)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + id));
-
-        if (!restaurant.getOwnerId().equals(userId)) {
-            throw new UnauthorizedException("You can only update your own restaurant");
-        }
-
-        RestaurantResponseDTO updated = restaurantService.updateRestaurant(request, id);
+        // Ownership is checked by the service against the row it updates
+        RestaurantResponseDTO updated = restaurantService.updateRestaurant(request, id, userId);
         return ResponseEntity.ok(ApiResponseDTO.success("Restaurant updated successfully", updated));
     }
 
@@ -160,7 +186,7 @@ public class RestaurantController {
             Restaurant restaurant = restaurantService.getRestaurantById(id)
                     .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + id));
 
-            if (!restaurant.getOwnerId().equals(userId)) {
+            if (!restaurant.isOwnedBy(userId)) {
                 throw new UnauthorizedException("You can only delete your own restaurant");
             }
         }
@@ -187,16 +213,8 @@ public class RestaurantController {
             @Valid @RequestBody MenuRequestDTO request,
             @Parameter(hidden = true) @RequestHeader("X-User-Id") String userId) {
 
-        // Verify ownership
-        Restaurant restaurant = restaurantService.getRestaurantById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId));
-
-        if (!restaurant.getOwnerId().equals(userId)) {
-            throw new UnauthorizedException("You can only add menu items to your own restaurant");
-        }
-
         request.setRestaurantId(restaurantId);
-        MenuResponseDTO menu = menuService.createMenu(request);
+        MenuResponseDTO menu = menuService.createMenu(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponseDTO.created(menu));
     }
@@ -218,15 +236,7 @@ public class RestaurantController {
             @Valid @RequestBody MenuRequestDTO request,
             @Parameter(hidden = true) @RequestHeader("X-User-Id") String userId) {
 
-        // Verify ownership
-        Restaurant restaurant = restaurantService.getRestaurantById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId));
-
-        if (!restaurant.getOwnerId().equals(userId)) {
-            throw new UnauthorizedException("You can only update menu items in your own restaurant");
-        }
-
-        MenuResponseDTO updated = menuService.updateMenu(request, menuId);
+        MenuResponseDTO updated = menuService.updateMenu(request, restaurantId, menuId, userId);
         return ResponseEntity.ok(ApiResponseDTO.success("Menu item updated successfully", updated));
     }
 
@@ -245,15 +255,7 @@ public class RestaurantController {
             @Parameter(description = "Menu ID") @PathVariable Long menuId,
             @Parameter(hidden = true) @RequestHeader("X-User-Id") String userId) {
 
-        // Verify ownership
-        Restaurant restaurant = restaurantService.getRestaurantById(restaurantId)
-                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + restaurantId));
-
-        if (!restaurant.getOwnerId().equals(userId)) {
-            throw new UnauthorizedException("You can only delete menu items from your own restaurant");
-        }
-
-        menuService.deleteMenu(menuId);
+        menuService.deleteMenu(restaurantId, menuId, userId);
         return ResponseEntity.ok(ApiResponseDTO.success("Menu item deleted successfully", null));
     }
 
@@ -0,0 +1,18 @@
+package com.restaurant_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    List<T> items;
+    String nextCursor; // opaque, pass as ?after= for the next page; absent on the last page
+    boolean hasNext;
+}
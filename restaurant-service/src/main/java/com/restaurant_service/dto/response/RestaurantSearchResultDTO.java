@@ -0,0 +1,21 @@
+package com.restaurant_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantSearchResultDTO {
+    Long id;
+    String name;
+    String type;
+    String location;
+    double score;
+    List<String> matchingMenus;
+}
@@ -0,0 +1,7 @@
+package com.restaurant_service.exception;
+
+public class InvalidCursorException extends AppException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,14 @@
 package com.restaurant_service.filter;
 
+import com.jwt_codec.Hs256Verifier;
+import com.jwt_codec.InvalidJwtException;
+import com.jwt_codec.JwtClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,8 +20,18 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
+@Slf4j
 public class UserContextFilter extends OncePerRequestFilter {
 
+    private static final String SERVICE_ROLE = "ROLE_SERVICE";
+
+    // Verifies service tokens on calls from other services, which do not pass through the gateway
+    private final Hs256Verifier serviceTokenVerifier;
+
+    public UserContextFilter(@Value("${jwt.secret:}") String jwtSecret) {
+        this.serviceTokenVerifier = jwtSecret.isBlank() ? null : new Hs256Verifier(jwtSecret.getBytes());
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -38,9 +53,33 @@ public class UserContextFilter extends OncePerRequestFilter {
                     new UsernamePasswordAuthenticationToken(userId, null, authorities);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
+        } else {
+            authenticateService(request);
         }
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private void authenticateService(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (serviceTokenVerifier == null || authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return;
+        }
+
+        JwtClaims claims;
+        try {
+            claims = serviceTokenVerifier.verify(authHeader.substring(7));
+        } catch (InvalidJwtException e) {
+            log.debug("Rejected service token for {}: {}", request.getRequestURI(), e.getMessage());
+            return;
+        }
+        // User tokens reach this service through the gateway as X-User headers, never directly
+        if (!SERVICE_ROLE.equals(claims.roles()) || claims.expiresAt() == 0) {
+            return;
+        }
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                claims.subject(), null, List.of(new SimpleGrantedAuthority(SERVICE_ROLE)));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
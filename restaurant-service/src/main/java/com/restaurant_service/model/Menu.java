@@ -7,7 +7,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "menus")
+@Table(name = "menus",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = "name", name = "uk_menus_name")
+        },
+        indexes = {
+                @Index(columnList = "restaurant_id, name, id", name = "idx_menus_restaurant_name_id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +23,7 @@ public class Menu {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String name;
 
     private double price;
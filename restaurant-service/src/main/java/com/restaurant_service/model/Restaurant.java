@@ -29,4 +29,7 @@ public class Restaurant {
     @Column(name = "owner_id", nullable = false, unique = true)
     private String ownerId;
 
+    public boolean isOwnedBy(String userId) {
+        return ownerId.equals(userId);
+    }
 }
@@ -1,9 +1,13 @@
 package com.restaurant_service.repository;
 
 import com.restaurant_service.model.Menu;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +16,32 @@ import java.util.Optional;
 @Repository
 public interface MenuRepository extends JpaRepository<Menu,Long> {
     Optional<Menu> findByName(String name);
+
+    List<Menu> findByRestaurantId(Long id);
+
+    // Menu pages are mapped with their restaurant's summary, so it is fetched in the same query
+    @EntityGraph(attributePaths = "restaurant")
     Page<Menu> findByRestaurantId(Long id, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "restaurant")
+    Page<Menu> findAll(Pageable pageable);
+
+    @Query("select m from Menu m join fetch m.restaurant r where r.id = :restaurantId order by m.name, m.id")
+    List<Menu> findFirstPage(@Param("restaurantId") Long restaurantId, Limit limit);
+
+    /**
+     * Keyset page of a restaurant's menu after {@code (name, id)}, seeking into
+     * {@code idx_menus_restaurant_name_id}.
+     */
+    @Query("select m from Menu m join fetch m.restaurant r where r.id = :restaurantId " +
+            "and (m.name, m.id) > (:name, :id) order by m.name, m.id")
+    List<Menu> findPageAfter(@Param("restaurantId") Long restaurantId,
+                             @Param("name") String name,
+                             @Param("id") Long id,
+                             Limit limit);
+
+    // The menu together with its restaurant, so an owner write checks ownership in the same round trip
+    @Query("select m from Menu m join fetch m.restaurant r where m.id = :menuId and r.id = :restaurantId")
+    Optional<Menu> findInRestaurant(@Param("restaurantId") Long restaurantId, @Param("menuId") Long menuId);
 }
@@ -1,12 +1,26 @@
 package com.restaurant_service.repository;
 
 import com.restaurant_service.model.Restaurant;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant,Long> {
     Optional<Restaurant> findByName(String name);
+
+    @Query("select r from Restaurant r order by r.name, r.id")
+    List<Restaurant> findFirstPage(Limit limit);
+
+    /**
+     * Keyset page after {@code (name, id)}. The row-value comparison seeks into the unique index on name,
+     * however deep the page, and no count query is needed.
+     */
+    @Query("select r from Restaurant r where (r.name, r.id) > (:name, :id) order by r.name, r.id")
+    List<Restaurant> findPageAfter(@Param("name") String name, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,368 @@
+package com.restaurant_service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of restaurants, each indexed with its name, type, location and menu item names.
+ * <p>
+ * Text is folded to lower case without diacritics and split on anything that is not a letter or digit.
+ * A query term matches index terms exactly, as a prefix (so results follow the user's typing) and, when it
+ * has no exact match, within one edit (two for long terms). Restaurants are ranked with BM25 over a single
+ * bag of terms in which a name occurrence counts {@value #NAME_WEIGHT} times, a type occurrence
+ * {@value #TYPE_WEIGHT} times and location and menu occurrences once; prefix and fuzzy matches score a
+ * fraction of an exact one. Each query term contributes its best-matching expansion only, so a short prefix
+ * matching many words cannot outweigh a full word.
+ * <p>
+ * Queries share a read lock and updates take the write lock, so a query never sees a half-updated restaurant.
+ * To keep one query from holding the lock for long, only its first {@value #MAX_QUERY_LENGTH} characters and
+ * {@value #MAX_QUERY_TERMS} distinct terms are used, and a fuzzy match only considers up to
+ * {@value #MAX_FUZZY_CANDIDATES} index terms sharing the query term's first letter.
+ */
+public class SearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float TYPE_WEIGHT = 2f;
+    private static final float LOCATION_WEIGHT = 1f;
+    private static final float MENU_WEIGHT = 1f;
+
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double FUZZY_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 64;
+    static final int MAX_QUERY_LENGTH = 256;
+    static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_FUZZY_CANDIDATES = 2048;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sorted so prefix expansion is a range scan
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    /**
+     * Adds or replaces a restaurant's own fields, keeping the menu items already indexed for it.
+     */
+    public void putRestaurant(long id, String name, String type, String location) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(id);
+            Map<Long, String> menus = document == null ? new LinkedHashMap<>() : document.menus;
+            reindex(id, new Document(name, type, location, menus));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a restaurant together with its complete set of menu items, by menu id.
+     */
+    public void putRestaurant(long id, String name, String type, String location, Map<Long, String> menus) {
+        lock.writeLock().lock();
+        try {
+            reindex(id, new Document(name, type, location, new LinkedHashMap<>(menus)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(long id) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.remove(id);
+            if (document != null) {
+                unindex(id, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or renames a menu item. Ignored if its restaurant is not indexed.
+     */
+    public void putMenu(long restaurantId, long menuId, String name) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(restaurantId);
+            if (document != null) {
+                Map<Long, String> menus = new LinkedHashMap<>(document.menus);
+                menus.put(menuId, name);
+                reindex(restaurantId, new Document(document.name, document.type, document.location, menus));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMenu(long restaurantId, long menuId) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(restaurantId);
+            if (document != null && document.menus.containsKey(menuId)) {
+                Map<Long, String> menus = new LinkedHashMap<>(document.menus);
+                menus.remove(menuId);
+                reindex(restaurantId, new Document(document.name, document.type, document.location, menus));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} restaurants matching any term of {@code query}, best first.
+     */
+    public List<Hit> search(String query, int limit) {
+        String bounded = query != null && query.length() > MAX_QUERY_LENGTH
+                ? query.substring(0, MAX_QUERY_LENGTH)
+                : query;
+        List<String> queryTerms = tokenize(bounded).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = totalLength / documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Set<String>> matchedTerms = new HashMap<>();
+
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> best = new HashMap<>();
+                expand(queryTerm).forEach((term, factor) -> {
+                    Map<Long, Float> docs = postings.get(term);
+                    double idf = idf(docs.size());
+                    docs.forEach((id, frequency) -> {
+                        double length = documents.get(id).length;
+                        double score = factor * idf * frequency * (K1 + 1)
+                                / (frequency + K1 * (1 - B + B * length / averageLength));
+                        best.merge(id, score, Math::max);
+                        matchedTerms.computeIfAbsent(id, key -> new HashSet<>()).add(term);
+                    });
+                });
+                best.forEach((id, score) -> scores.merge(id, score, Double::sum));
+            }
+
+            return top(scores, limit).stream()
+                    .map(entry -> hit(entry.getKey(), entry.getValue(), matchedTerms.get(entry.getKey())))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Index terms a query term matches, with the fraction of an exact match's score each one earns.
+     */
+    private Map<String, Double> expand(String queryTerm) {
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        boolean exact = postings.containsKey(queryTerm);
+        if (exact) {
+            expansions.put(queryTerm, 1.0);
+        }
+
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                expansions.put(term, PREFIX_FACTOR);
+            }
+        }
+
+        // Typos only: a word that is in the index is taken as meant. Typos rarely hit the first letter, and
+        // holding it fixed turns a scan of the whole vocabulary into a range scan.
+        if (!exact && queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            String first = queryTerm.substring(0, 1);
+            int scanned = 0;
+            for (String term : postings.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS || ++scanned > MAX_FUZZY_CANDIDATES) {
+                    break;
+                }
+                if (!expansions.containsKey(term)
+                        && Math.abs(term.length() - queryTerm.length()) <= maxEdits
+                        && withinEdits(queryTerm, term, maxEdits)) {
+                    expansions.put(term, FUZZY_FACTOR);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static List<Map.Entry<Long, Double>> top(Map<Long, Double> scores, int limit) {
+        // Ties go to the lower id, so equal scores come back in a stable order
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(
+                Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()));
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(heap.comparator().reversed());
+        return ranked;
+    }
+
+    private Hit hit(long id, double score, Set<String> matched) {
+        Document document = documents.get(id);
+        List<String> matchingMenus = document.menus.values().stream()
+                .filter(menu -> tokenize(menu).stream().anyMatch(matched::contains))
+                .toList();
+        return new Hit(id, document.name, document.type, document.location, score, matchingMenus);
+    }
+
+    private void reindex(long id, Document document) {
+        Document previous = documents.put(id, document);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        document.terms.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+        totalLength += document.length;
+    }
+
+    private void unindex(long id, Document document) {
+        for (String term : document.terms.keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    /**
+     * Whether {@code a} can be turned into {@code b} with at most {@code maxEdits} insertions, deletions,
+     * substitutions or swaps of adjacent letters, giving up as soon as a whole row of the edit-distance table
+     * exceeds the bound.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                // Swapped neighbours ("pizaz") are the most common typo, so they count as one edit
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * A ranked restaurant, with the names of its menu items that matched the query.
+     */
+    public record Hit(long id, String name, String type, String location, double score, List<String> matchingMenus) {
+    }
+
+    private static final class Document {
+
+        private final String name;
+        private final String type;
+        private final String location;
+        private final Map<Long, String> menus;
+        private final Map<String, Float> terms = new HashMap<>();
+        private final float length;
+
+        private Document(String name, String type, String location, Map<Long, String> menus) {
+            this.name = name;
+            this.type = type;
+            this.location = location;
+            this.menus = Collections.unmodifiableMap(menus);
+
+            float total = add(name, NAME_WEIGHT) + add(type, TYPE_WEIGHT) + add(location, LOCATION_WEIGHT);
+            for (String menu : menus.values()) {
+                total += add(menu, MENU_WEIGHT);
+            }
+            this.length = total;
+        }
+
+        private float add(String text, float weight) {
+            List<String> tokens = tokenize(text);
+            for (String token : tokens) {
+                terms.merge(token, weight, Float::sum);
+            }
+            return tokens.size() * weight;
+        }
+    }
+}
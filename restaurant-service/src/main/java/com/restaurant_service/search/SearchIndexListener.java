@@ -0,0 +1,32 @@
+package com.restaurant_service.search;
+
+import com.restaurant_service.cache.CacheInvalidationMessage;
+import com.restaurant_service.cache.CacheInvalidationMessaging;
+import com.restaurant_service.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the search index current with writes made on other replicas. Listens to the same broadcasts as
+ * the read caches, on a queue of its own (see {@code SearchConfig}), and reloads the changed restaurant.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexListener {
+
+    private final SearchService searchService;
+    private final CacheInvalidationMessaging messaging;
+
+    @RabbitListener(queues = "#{searchIndexQueue.name}")
+    public void onChange(CacheInvalidationMessage message) {
+        if (messaging.instanceId().equals(message.origin())) {
+            // Applied to the index when the write committed
+            return;
+        }
+        log.debug("Reindexing restaurant {} after a write on {}", message.restaurantId(), message.origin());
+        searchService.reindexRestaurant(message.restaurantId());
+    }
+}
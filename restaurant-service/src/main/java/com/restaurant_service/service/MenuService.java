@@ -1,6 +1,7 @@
 package com.restaurant_service.service;
 
 import com.restaurant_service.dto.request.MenuRequestDTO;
+import com.restaurant_service.dto.response.CursorPageDTO;
 import com.restaurant_service.dto.response.MenuResponseDTO;
 import com.restaurant_service.model.Menu;
 import org.springframework.data.domain.Page;
@@ -11,7 +12,7 @@ import java.util.Optional;
 @Service
 public interface MenuService {
 
-    MenuResponseDTO createMenu(MenuRequestDTO menuRequestDto);
+    MenuResponseDTO createMenu(MenuRequestDTO menuRequestDto, String ownerId);
 
     Optional<Menu> getMenuByName(String name);
 
@@ -21,7 +22,9 @@ public interface MenuService {
 
     Page<MenuResponseDTO> getRestaurantMenus(Long id, Pageable pageable);
 
-    MenuResponseDTO updateMenu(MenuRequestDTO menuRequestDto, Long menuId);
+    CursorPageDTO<MenuResponseDTO> getRestaurantMenusAfter(Long id, String after, int size); // keyset page by (name, id)
 
-    void deleteMenu(Long id);
+    MenuResponseDTO updateMenu(MenuRequestDTO menuRequestDto, Long restaurantId, Long menuId, String ownerId);
+
+    void deleteMenu(Long restaurantId, Long menuId, String ownerId);
 }
@@ -1,6 +1,7 @@
 package com.restaurant_service.service;
 
 import com.restaurant_service.dto.request.RestaurantRequestDTO;
+import com.restaurant_service.dto.response.CursorPageDTO;
 import com.restaurant_service.dto.response.RestaurantResponseDTO;
 import com.restaurant_service.model.Restaurant;
 import org.springframework.data.domain.Page;
@@ -18,9 +19,13 @@ public interface RestaurantService {
 
     Optional<Restaurant> getRestaurantById(Long id);
 
+    RestaurantResponseDTO getRestaurant(Long id); // cached, for public reads
+
     Page<RestaurantResponseDTO> getAllRestaurants(Pageable pageable);
 
-    RestaurantResponseDTO updateRestaurant(RestaurantRequestDTO restaurantRequestDto, Long restaurantId);
+    CursorPageDTO<RestaurantResponseDTO> getRestaurantsAfter(String after, int size); // keyset page by (name, id)
+
+    RestaurantResponseDTO updateRestaurant(RestaurantRequestDTO restaurantRequestDto, Long restaurantId, String ownerId);
 
     void deleteRestaurant(Long id);
 }
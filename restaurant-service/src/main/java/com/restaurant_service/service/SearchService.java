@@ -0,0 +1,22 @@
+package com.restaurant_service.service;
+
+import com.restaurant_service.dto.response.RestaurantSearchResultDTO;
+import com.restaurant_service.model.Menu;
+import com.restaurant_service.model.Restaurant;
+
+import java.util.List;
+
+public interface SearchService {
+
+    List<RestaurantSearchResultDTO> search(String query, int limit); // ranked, served from memory
+
+    void restaurantSaved(Restaurant restaurant); // applied after commit
+
+    void restaurantDeleted(Long restaurantId);
+
+    void menuSaved(Menu menu);
+
+    void menuDeleted(Long restaurantId, Long menuId);
+
+    void reindexRestaurant(Long restaurantId); // reloads one restaurant, after a write on another replica
+}
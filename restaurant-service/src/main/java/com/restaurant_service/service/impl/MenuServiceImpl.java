@@ -1,46 +1,60 @@
 package com.restaurant_service.service.impl;
 
+import com.restaurant_service.cache.RestaurantCaches;
+import com.restaurant_service.cache.RestaurantCaches.MenuPageKey;
 import com.restaurant_service.dto.request.MenuRequestDTO;
+import com.restaurant_service.dto.response.CursorPageDTO;
 import com.restaurant_service.dto.response.MenuResponseDTO;
 import com.restaurant_service.exception.MenuExistsException;
 import com.restaurant_service.exception.MenuNotFoundException;
 import com.restaurant_service.exception.RestaurantNotFoundException;
+import com.restaurant_service.exception.UnauthorizedException;
 import com.restaurant_service.mapper.MenuMapper;
 import com.restaurant_service.model.Menu;
 import com.restaurant_service.model.Restaurant;
 import com.restaurant_service.repository.MenuRepository;
 import com.restaurant_service.repository.RestaurantRepository;
 import com.restaurant_service.service.MenuService;
+import com.restaurant_service.service.SearchService;
+import com.restaurant_service.util.NameCursor;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MenuServiceImpl implements MenuService {
 
+    private static final String MENU_NAME_CONSTRAINT = "uk_menus_name";
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final MenuMapper menuMapper;
     private final MenuRepository menuRepository;
     private final RestaurantRepository restaurantRepository;
+    private final RestaurantCaches caches;
+    private final SearchService searchService;
 
     @Override
     @Transactional
-    public MenuResponseDTO createMenu(MenuRequestDTO menuDto) {
-        // Validate restaurant exists
+    public MenuResponseDTO createMenu(MenuRequestDTO menuDto, String ownerId) {
+        // Validate restaurant exists and belongs to the caller
         Restaurant restaurant = restaurantRepository.findById(menuDto.getRestaurantId())
                 .orElseThrow(() -> new RestaurantNotFoundException(
                         String.format("A restaurant with the id '%s' doesn't exist", menuDto.getRestaurantId())
                 ));
-
-        // Check if menu name already exists
-        if (menuRepository.findByName(menuDto.getName()).isPresent()) {
-            throw new MenuExistsException(
-                    String.format("A menu with the name '%s' already exists", menuDto.getName())
-            );
+        if (!restaurant.isOwnedBy(ownerId)) {
+            throw new UnauthorizedException("You can only add menu items to your own restaurant");
         }
 
         // Map DTO to entity and set restaurant
@@ -50,7 +64,20 @@ public class MenuServiceImpl implements MenuService {
                 .restaurant(restaurant)
                 .build();
 
-        Menu savedMenu = menuRepository.save(menu);
+        // Menu names are unique in the schema, so a taken name fails the insert instead of needing a lookup
+        Menu savedMenu;
+        try {
+            savedMenu = menuRepository.saveAndFlush(menu);
+        } catch (DataIntegrityViolationException e) {
+            if (!isMenuNameConflict(e)) {
+                throw e;
+            }
+            throw new MenuExistsException(
+                    String.format("A menu with the name '%s' already exists", menuDto.getName())
+            );
+        }
+        caches.menusChanged(restaurant.getId());
+        searchService.menuSaved(savedMenu);
         return menuMapper.toResponseDTO(savedMenu);
     }
 
@@ -72,16 +99,38 @@ public class MenuServiceImpl implements MenuService {
 
     @Override
     public Page<MenuResponseDTO> getRestaurantMenus(Long id, Pageable pageable) {
-        return menuRepository.findByRestaurantId(id, pageable)
-                .map(menuMapper::toResponseDTO);
+        return caches.menuPages().get(new MenuPageKey(id, pageable), key ->
+                menuRepository.findByRestaurantId(key.restaurantId(), key.pageable())
+                        .map(menuMapper::toResponseDTO));
+    }
+
+    @Override
+    public CursorPageDTO<MenuResponseDTO> getRestaurantMenusAfter(Long id, String after, int size) {
+        // One extra row tells whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<Menu> menus;
+        if (after == null || after.isBlank()) {
+            menus = menuRepository.findFirstPage(id, limit);
+        } else {
+            NameCursor cursor = NameCursor.decode(after);
+            menus = menuRepository.findPageAfter(id, cursor.name(), cursor.id(), limit);
+        }
+
+        boolean hasNext = menus.size() > size;
+        List<Menu> page = hasNext ? menus.subList(0, size) : menus;
+        Menu last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageDTO.<MenuResponseDTO>builder()
+                .items(page.stream().map(menuMapper::toResponseDTO).collect(Collectors.toList()))
+                .nextCursor(hasNext ? new NameCursor(last.getName(), last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
     @Transactional
-    public MenuResponseDTO updateMenu(MenuRequestDTO menuRequestDto, Long menuId) {
-        Menu menu = getMenuById(menuId)
-                .orElseThrow(() -> new MenuNotFoundException(
-                        String.format("A menu with the Id '%d' doesn't exist", menuId)));
+    public MenuResponseDTO updateMenu(MenuRequestDTO menuRequestDto, Long restaurantId, Long menuId, String ownerId) {
+        Menu menu = getOwnedMenu(restaurantId, menuId, ownerId, "You can only update menu items in your own restaurant");
 
         if (menuRequestDto.getName() != null) {
             menu.setName(menuRequestDto.getName());
@@ -91,16 +140,46 @@ public class MenuServiceImpl implements MenuService {
         }
 
         Menu updatedMenu = menuRepository.save(menu);
+        caches.menusChanged(restaurantId);
+        searchService.menuSaved(updatedMenu);
         return menuMapper.toResponseDTO(updatedMenu);
     }
 
     @Override
     @Transactional
-    public void deleteMenu(Long id) {
-        if (!menuRepository.existsById(id)) {
-            throw new MenuNotFoundException(
-                    String.format("A menu with the Id '%d' doesn't exist", id));
+    public void deleteMenu(Long restaurantId, Long menuId, String ownerId) {
+        Menu menu = getOwnedMenu(restaurantId, menuId, ownerId, "You can only delete menu items from your own restaurant");
+        // Already in the persistence context, so this issues only the delete
+        menuRepository.delete(menu);
+        caches.menusChanged(restaurantId);
+        searchService.menuDeleted(restaurantId, menuId);
+    }
+
+    /**
+     * Loads a menu of the given restaurant with its restaurant in one query and checks the caller owns it.
+     */
+    private Menu getOwnedMenu(Long restaurantId, Long menuId, String ownerId, String deniedMessage) {
+        Menu menu = menuRepository.findInRestaurant(restaurantId, menuId)
+                .orElseThrow(() -> new MenuNotFoundException(
+                        String.format("A menu with the Id '%d' doesn't exist in restaurant '%d'", menuId, restaurantId)));
+        if (!menu.getRestaurant().isOwnedBy(ownerId)) {
+            throw new UnauthorizedException(deniedMessage);
+        }
+        return menu;
+    }
+
+    private static boolean isMenuNameConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // PostgreSQL reports the constraint name as is, H2 as a schema-qualified index derived from it
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(MENU_NAME_CONSTRAINT)) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())
+                    && String.valueOf(sql.getMessage()).contains("(name)")) {
+                return true;
+            }
         }
-        menuRepository.deleteById(id);
+        return false;
     }
 }
@@ -1,19 +1,27 @@
 package com.restaurant_service.service.impl;
 
+import com.restaurant_service.cache.RestaurantCaches;
 import com.restaurant_service.dto.request.RestaurantRequestDTO;
+import com.restaurant_service.dto.response.CursorPageDTO;
 import com.restaurant_service.dto.response.RestaurantResponseDTO;
 import com.restaurant_service.exception.RestaurantNotFoundException;
+import com.restaurant_service.exception.UnauthorizedException;
 import com.restaurant_service.mapper.RestaurantMapper;
 import com.restaurant_service.model.Restaurant;
 import com.restaurant_service.repository.RestaurantRepository;
 import com.restaurant_service.service.RestaurantService;
+import com.restaurant_service.service.SearchService;
+import com.restaurant_service.util.NameCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +29,8 @@ public class RestaurantServiceImpl implements RestaurantService {
 
     private final RestaurantMapper restaurantMapper;
     private final RestaurantRepository restaurantRepository;
+    private final RestaurantCaches caches;
+    private final SearchService searchService;
 
     @Override
     @Transactional
@@ -32,6 +42,8 @@ public class RestaurantServiceImpl implements RestaurantService {
                 .ownerId(dto.getOwnerId())
                 .build();
         Restaurant saved = restaurantRepository.save(restaurant);
+        caches.restaurantChanged(saved.getId());
+        searchService.restaurantSaved(saved);
         return restaurantMapper.toResponseDTO(saved);
     }
 
@@ -45,18 +57,52 @@ public class RestaurantServiceImpl implements RestaurantService {
         return restaurantRepository.findById(id);
     }
 
+    @Override
+    public RestaurantResponseDTO getRestaurant(Long id) {
+        return caches.restaurants().get(id, key -> restaurantRepository.findById(key)
+                .map(restaurantMapper::toResponseDTO)
+                .orElseThrow(() -> new RestaurantNotFoundException("Restaurant not found with id: " + key)));
+    }
+
     @Override
     public Page<RestaurantResponseDTO> getAllRestaurants(Pageable pageable) {
-        return restaurantRepository.findAll(pageable)
-                .map(restaurantMapper::toResponseDTO);
+        return caches.restaurantPages().get(pageable, key -> restaurantRepository.findAll(key)
+                .map(restaurantMapper::toResponseDTO));
+    }
+
+    @Override
+    public CursorPageDTO<RestaurantResponseDTO> getRestaurantsAfter(String after, int size) {
+        // One extra row tells whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<Restaurant> restaurants;
+        if (after == null || after.isBlank()) {
+            restaurants = restaurantRepository.findFirstPage(limit);
+        } else {
+            NameCursor cursor = NameCursor.decode(after);
+            restaurants = restaurantRepository.findPageAfter(cursor.name(), cursor.id(), limit);
+        }
+
+        boolean hasNext = restaurants.size() > size;
+        List<Restaurant> page = hasNext ? restaurants.subList(0, size) : restaurants;
+        Restaurant last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageDTO.<RestaurantResponseDTO>builder()
+                .items(page.stream().map(restaurantMapper::toResponseDTO).collect(Collectors.toList()))
+                .nextCursor(hasNext ? new NameCursor(last.getName(), last.getId()).encode() : null)
+                .hasNext(hasNext)
+                .build();
     }
 
     @Override
     @Transactional
-    public RestaurantResponseDTO updateRestaurant(RestaurantRequestDTO dto, Long id) {
+    public RestaurantResponseDTO updateRestaurant(RestaurantRequestDTO dto, Long id, String ownerId) {
+        // The row read for the update is also the ownership check
         Restaurant restaurant = getRestaurantById(id)
                 .orElseThrow(() -> new RestaurantNotFoundException(
                         String.format("A restaurant with the Id '%d' doesn't exist", id)));
+        if (!restaurant.isOwnedBy(ownerId)) {
+            throw new UnauthorizedException("You can only update your own restaurant");
+        }
 
         if (dto.getName() != null) {
             restaurant.setName(dto.getName());
@@ -69,6 +115,8 @@ public class RestaurantServiceImpl implements RestaurantService {
         }
 
         Restaurant updated = restaurantRepository.save(restaurant);
+        caches.restaurantChanged(id);
+        searchService.restaurantSaved(updated);
         return restaurantMapper.toResponseDTO(updated);
     }
 
@@ -80,5 +128,7 @@ public class RestaurantServiceImpl implements RestaurantService {
                     String.format("A restaurant with the Id '%d' doesn't exist", id));
         }
         restaurantRepository.deleteById(id);
+        caches.restaurantChanged(id);
+        searchService.restaurantDeleted(id);
     }
 }
@@ -0,0 +1,198 @@
+package com.restaurant_service.service.impl;
+
+import com.restaurant_service.dto.response.RestaurantSearchResultDTO;
+import com.restaurant_service.model.Menu;
+import com.restaurant_service.model.Restaurant;
+import com.restaurant_service.repository.MenuRepository;
+import com.restaurant_service.repository.RestaurantRepository;
+import com.restaurant_service.search.SearchIndex;
+import com.restaurant_service.service.SearchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Restaurant search served from a {@link SearchIndex} held in memory.
+ * <p>
+ * The index is built from the database once the application is ready and then kept current by the writes
+ * of this instance, applied after they commit, and by {@code SearchIndexListener} for writes made on other
+ * replicas. Searches never touch the database.
+ * <p>
+ * A build loads into a fresh index while searches keep using the current one. Updates arriving meanwhile are
+ * applied to the current index and also queued, then replayed onto the fresh index in order before it is
+ * swapped in, so a write that commits after the build has read its snapshot is not lost. If the database
+ * cannot be read the build is abandoned and the application still starts.
+ */
+@Service
+@Slf4j
+public class SearchServiceImpl implements SearchService {
+
+    private static final int MAX_RESULTS = 50;
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuRepository menuRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer searchTimer;
+    private final Object updateLock = new Object();
+    private volatile SearchIndex index = new SearchIndex();
+    // Updates made while a build is loading its snapshot, or null when no build is running
+    private List<Consumer<SearchIndex>> pendingUpdates;
+
+    public SearchServiceImpl(RestaurantRepository restaurantRepository,
+                             MenuRepository menuRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuRepository = menuRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.searchTimer = Timer.builder("restaurant.search")
+                .description("Time to answer a restaurant search from the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("restaurant.search.indexed", this, service -> service.index.size())
+                .description("Restaurants in the search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        synchronized (updateLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+
+        SearchIndex fresh = new SearchIndex();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> load(fresh));
+        } catch (DataAccessException | TransactionException e) {
+            synchronized (updateLock) {
+                pendingUpdates = null;
+            }
+            log.error("Could not build the search index, only restaurants written from now on are searchable: {}",
+                    e.getMessage());
+            return;
+        }
+
+        int replayed;
+        synchronized (updateLock) {
+            replayed = pendingUpdates.size();
+            pendingUpdates.forEach(update -> update.accept(fresh));
+            pendingUpdates = null;
+            index = fresh;
+        }
+        log.info("Indexed {} restaurants for search, replaying {} concurrent updates", fresh.size(), replayed);
+    }
+
+    @Override
+    public List<RestaurantSearchResultDTO> search(String query, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_RESULTS);
+        return searchTimer.record(() -> index.search(query, size).stream()
+                .map(hit -> RestaurantSearchResultDTO.builder()
+                        .id(hit.id())
+                        .name(hit.name())
+                        .type(hit.type())
+                        .location(hit.location())
+                        .score(hit.score())
+                        .matchingMenus(hit.matchingMenus())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void restaurantSaved(Restaurant restaurant) {
+        long id = restaurant.getId();
+        String name = restaurant.getName();
+        String type = restaurant.getType();
+        String location = restaurant.getLocation();
+        afterCommit(() -> apply(target -> target.putRestaurant(id, name, type, location)));
+    }
+
+    @Override
+    public void restaurantDeleted(Long restaurantId) {
+        afterCommit(() -> apply(target -> target.removeRestaurant(restaurantId)));
+    }
+
+    @Override
+    public void menuSaved(Menu menu) {
+        long restaurantId = menu.getRestaurant().getId();
+        long menuId = menu.getId();
+        String name = menu.getName();
+        afterCommit(() -> apply(target -> target.putMenu(restaurantId, menuId, name)));
+    }
+
+    @Override
+    public void menuDeleted(Long restaurantId, Long menuId) {
+        afterCommit(() -> apply(target -> target.removeMenu(restaurantId, menuId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexRestaurant(Long restaurantId) {
+        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
+        if (restaurant.isEmpty()) {
+            apply(target -> target.removeRestaurant(restaurantId));
+            return;
+        }
+        Map<Long, String> menus = menuRepository.findByRestaurantId(restaurantId).stream()
+                .collect(Collectors.toMap(Menu::getId, Menu::getName, (a, b) -> a, LinkedHashMap::new));
+        Restaurant current = restaurant.get();
+        apply(target -> target.putRestaurant(
+                current.getId(), current.getName(), current.getType(), current.getLocation(), menus));
+    }
+
+    private void apply(Consumer<SearchIndex> update) {
+        synchronized (updateLock) {
+            update.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+
+    private void load(SearchIndex target) {
+        Map<Long, Map<Long, String>> menusByRestaurant = new HashMap<>();
+        for (Menu menu : menuRepository.findAll()) {
+            // The restaurant's id is read from the lazy proxy without loading it
+            menusByRestaurant.computeIfAbsent(menu.getRestaurant().getId(), id -> new LinkedHashMap<>())
+                    .put(menu.getId(), menu.getName());
+        }
+
+        for (Restaurant restaurant : restaurantRepository.findAll()) {
+            target.putRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getType(),
+                    restaurant.getLocation(), menusByRestaurant.getOrDefault(restaurant.getId(), Map.of()));
+        }
+    }
+
+    // The index must not show a write that is rolled back
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.restaurant_service.util;
+
+import com.restaurant_service.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (name, id)}: the sort key of the last row on a page. Clients see
+ * it as an opaque URL-safe string.
+ */
+public record NameCursor(String name, Long id) {
+
+    public String encode() {
+        // The id goes first, as names may contain the separator
+        String raw = id + "," + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NameCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new NameCursor(raw.substring(comma + 1), Long.parseLong(raw.substring(0, comma)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.restaurant_service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadThroughCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReadThroughCache<Long, String> cache =
+            new ReadThroughCache<>("restaurants", 100, Duration.ofMinutes(5), meterRegistry);
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(1L, id -> {
+                loads.incrementAndGet();
+                loaderEntered.countDown();
+                await(release);
+                return "Mama's Kitchen";
+            }));
+            assertThat(loaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> second = executor.submit(() -> cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return "second load";
+            }));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Mama's Kitchen");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Mama's Kitchen");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(1L, id -> "reloaded")).isEqualTo("Mama's Kitchen");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "restaurants").tag("result", "hit")
+                .functionCounter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        String value = cache.get(1L, id -> {
+            cache.invalidate(id);
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.get(1L, id -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(1L, id -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void invalidateIfDropsOnlyMatchingKeys() {
+        cache.get(1L, id -> "one");
+        cache.get(2L, id -> "two");
+
+        cache.invalidateIf(id -> id == 1L);
+
+        assertThat(cache.get(1L, id -> "one again")).isEqualTo("one again");
+        assertThat(cache.get(2L, id -> "two again")).isEqualTo("two");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
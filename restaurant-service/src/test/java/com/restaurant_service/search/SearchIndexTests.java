@@ -0,0 +1,99 @@
+package com.restaurant_service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTests {
+
+    private final SearchIndex index = new SearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.putRestaurant(1, "Pizza Palace", "Italian", "Kigali", Map.of(10L, "Margherita", 11L, "Calzone"));
+        index.putRestaurant(2, "Green Garden", "Vegetarian", "Musanze", Map.of(20L, "Pizza Verde", 21L, "Falafel Wrap"));
+        index.putRestaurant(3, "Café Nyamirambo", "Coffee", "Kigali", Map.of(30L, "Crème brûlée"));
+    }
+
+    @Test
+    void nameMatchesRankAboveMenuMatches() {
+        List<SearchIndex.Hit> hits = index.search("pizza", 10);
+
+        assertThat(hits).extracting(SearchIndex.Hit::id).containsExactly(1L, 2L);
+        assertThat(hits.get(1).matchingMenus()).containsExactly("Pizza Verde");
+    }
+
+    @Test
+    void matchesWordPrefixes() {
+        assertThat(index.search("marg", 10)).extracting(SearchIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("veg mus", 10)).extracting(SearchIndex.Hit::id).containsExactly(2L);
+    }
+
+    @Test
+    void toleratesSmallTypos() {
+        assertThat(index.search("calzoen", 10)).extracting(SearchIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("falafle", 10)).extracting(SearchIndex.Hit::id).containsExactly(2L);
+    }
+
+    @Test
+    void ignoresCaseAndDiacritics() {
+        assertThat(index.search("CAFE creme", 10)).extracting(SearchIndex.Hit::id).containsExactly(3L);
+        assertThat(index.search("brûlée", 10)).extracting(SearchIndex.Hit::id).containsExactly(3L);
+    }
+
+    @Test
+    void ranksRestaurantsMatchingMoreTermsFirst() {
+        List<SearchIndex.Hit> hits = index.search("kigali pizza", 10);
+
+        assertThat(hits).extracting(SearchIndex.Hit::id).startsWith(1L);
+        assertThat(hits).extracting(SearchIndex.Hit::id).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void limitsResults() {
+        assertThat(index.search("kigali", 1)).hasSize(1);
+        assertThat(index.search("   ", 10)).isEmpty();
+    }
+
+    @Test
+    void usesOnlyTheFirstTermsOfALongQuery() {
+        StringBuilder junk = new StringBuilder();
+        for (int i = 1; i < SearchIndex.MAX_QUERY_TERMS; i++) {
+            junk.append("qx").append(i).append(' ');
+        }
+
+        assertThat(index.search(junk + "pizza", 10)).extracting(SearchIndex.Hit::id).containsExactly(1L, 2L);
+        assertThat(index.search(junk + "unrelated pizza", 10)).isEmpty();
+        // Repeated terms count once
+        assertThat(index.search("qx1 ".repeat(50) + "pizza", 10)).extracting(SearchIndex.Hit::id)
+                .containsExactly(1L, 2L);
+        assertThat(index.search("a".repeat(SearchIndex.MAX_QUERY_LENGTH) + " pizza", 10)).isEmpty();
+    }
+
+    @Test
+    void appliesIncrementalUpdates() {
+        index.putRestaurant(1, "Burger Barn", "American", "Kigali");
+        assertThat(index.search("pizza", 10)).extracting(SearchIndex.Hit::id).containsExactly(2L);
+        // Renaming a restaurant keeps its menus
+        assertThat(index.search("calzone", 10)).extracting(SearchIndex.Hit::id).containsExactly(1L);
+
+        index.putMenu(3, 31L, "Pizza Slice");
+        assertThat(index.search("pizza", 10)).extracting(SearchIndex.Hit::id).containsExactlyInAnyOrder(2L, 3L);
+
+        index.removeMenu(2, 20L);
+        index.removeRestaurant(3);
+        assertThat(index.search("pizza", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresMenusOfRestaurantsNotIndexed() {
+        index.putMenu(99, 990L, "Sushi Platter");
+
+        assertThat(index.search("sushi", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.restaurant_service.service.impl;
+
+import com.restaurant_service.cache.CacheInvalidationMessaging;
+import com.restaurant_service.cache.RestaurantCaches;
+import com.restaurant_service.dto.response.CursorPageDTO;
+import com.restaurant_service.dto.response.MenuResponseDTO;
+import com.restaurant_service.dto.response.RestaurantResponseDTO;
+import com.restaurant_service.exception.InvalidCursorException;
+import com.restaurant_service.mapper.MenuMapperImpl;
+import com.restaurant_service.mapper.RestaurantMapperImpl;
+import com.restaurant_service.model.Menu;
+import com.restaurant_service.model.Restaurant;
+import com.restaurant_service.repository.MenuRepository;
+import com.restaurant_service.repository.RestaurantRepository;
+import com.restaurant_service.service.SearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RestaurantServiceImpl.class, MenuServiceImpl.class, MenuMapperImpl.class, RestaurantMapperImpl.class,
+        CursorPaginationTests.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CursorPaginationTests {
+
+    // Commas in names must survive the cursor round trip
+    private static final List<String> NAMES = List.of(
+            "Akabanga", "Brochette, Grill & Bar", "Chez Lando", "Heaven", "Inzora", "Meze Fresh", "Poivre Noir",
+            "Repub Lounge", "Sole Luna", "The Hut");
+
+    @Autowired
+    private RestaurantServiceImpl restaurantService;
+    @Autowired
+    private MenuServiceImpl menuService;
+    @Autowired
+    private MenuRepository menuRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        menuRepository.deleteAllInBatch();
+        restaurantRepository.deleteAllInBatch();
+
+        // Saved out of order, so the listing order comes from the query
+        for (int i = NAMES.size() - 1; i >= 0; i--) {
+            Restaurant saved = restaurantRepository.save(Restaurant.builder()
+                    .name(NAMES.get(i))
+                    .location("Kigali")
+                    .type("Grill")
+                    .ownerId("owner-" + i)
+                    .build());
+            if (i == 0) {
+                restaurant = saved;
+            }
+        }
+        for (String name : NAMES) {
+            menuRepository.save(Menu.builder().name("Menu " + name).price(10).restaurant(restaurant).build());
+        }
+    }
+
+    @Test
+    void restaurantPagesWalkTheListingInNameOrderWithOneQueryEach() {
+        List<String> seen = new ArrayList<>();
+        String after = "";
+        int pages = 0;
+        do {
+            Statistics statistics = statistics();
+            CursorPageDTO<RestaurantResponseDTO> page = restaurantService.getRestaurantsAfter(after, 3);
+            assertThat(statistics.getPrepareStatementCount()).as("statements per page").isEqualTo(1);
+
+            page.getItems().forEach(item -> seen.add(item.getName()));
+            after = page.getNextCursor();
+            assertThat(page.isHasNext()).isEqualTo(after != null);
+            pages++;
+        } while (after != null);
+
+        assertThat(seen).containsExactlyElementsOf(NAMES);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void menuPagesWalkOneRestaurantsMenuWithOneQueryEach() {
+        List<String> seen = new ArrayList<>();
+        String after = "";
+        do {
+            Statistics statistics = statistics();
+            CursorPageDTO<MenuResponseDTO> page = menuService.getRestaurantMenusAfter(restaurant.getId(), after, 4);
+            assertThat(statistics.getPrepareStatementCount()).as("statements per page").isEqualTo(1);
+
+            page.getItems().forEach(item -> {
+                assertThat(item.getRestaurantSummaryDto().getName()).isEqualTo(restaurant.getName());
+                seen.add(item.getName());
+            });
+            after = page.getNextCursor();
+        } while (after != null);
+
+        assertThat(seen).containsExactlyElementsOf(NAMES.stream().map(name -> "Menu " + name).toList());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> restaurantService.getRestaurantsAfter("not-a-cursor", 3))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @TestConfiguration
+    static class Caches {
+
+        @Bean
+        RestaurantCaches restaurantCaches() {
+            Duration ttl = Duration.ofMinutes(5);
+            return new RestaurantCaches(100, ttl, 100, ttl, 100, ttl,
+                    mock(CacheInvalidationMessaging.class), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        SearchService searchService() {
+            return mock(SearchService.class);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.restaurant_service.service.impl;
+
+import com.restaurant_service.cache.CacheInvalidationMessaging;
+import com.restaurant_service.cache.RestaurantCaches;
+import com.restaurant_service.dto.request.MenuRequestDTO;
+import com.restaurant_service.exception.MenuExistsException;
+import com.restaurant_service.mapper.MenuMapperImpl;
+import com.restaurant_service.mapper.RestaurantMapperImpl;
+import com.restaurant_service.model.Restaurant;
+import com.restaurant_service.repository.MenuRepository;
+import com.restaurant_service.repository.RestaurantRepository;
+import com.restaurant_service.service.SearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks which failed menu inserts are reported as a taken name. Only the unique name constraint means the
+ * menu exists; any other integrity violation has to reach the caller unchanged.
+ */
+@DataJpaTest
+@Import({MenuServiceImpl.class, MenuMapperImpl.class, RestaurantMapperImpl.class, MenuCreationTests.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuCreationTests {
+
+    private static final String OWNER = "owner-1";
+
+    @Autowired
+    private MenuServiceImpl menuService;
+    @Autowired
+    private MenuRepository menuRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private Long restaurantId;
+
+    @BeforeEach
+    void setUp() {
+        menuRepository.deleteAllInBatch();
+        restaurantRepository.deleteAllInBatch();
+        restaurantId = restaurantRepository.save(Restaurant.builder()
+                .name("Restaurant")
+                .location("Kigali")
+                .type("Grill")
+                .ownerId(OWNER)
+                .build()).getId();
+    }
+
+    @Test
+    void takenNameIsReportedAsExistingMenu() {
+        menuService.createMenu(new MenuRequestDTO("Brochette", 8, restaurantId), OWNER);
+
+        assertThatThrownBy(() -> menuService.createMenu(new MenuRequestDTO("Brochette", 9, restaurantId), OWNER))
+                .isInstanceOf(MenuExistsException.class)
+                .hasMessageContaining("Brochette");
+        assertThat(menuRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void otherIntegrityViolationsAreRethrown() {
+        assertThatThrownBy(() -> menuService.createMenu(new MenuRequestDTO(null, 8, restaurantId), OWNER))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .isNotInstanceOf(MenuExistsException.class);
+        assertThat(menuRepository.count()).isZero();
+    }
+
+    @TestConfiguration
+    static class Caches {
+
+        @Bean
+        RestaurantCaches restaurantCaches() {
+            Duration ttl = Duration.ofMinutes(5);
+            return new RestaurantCaches(100, ttl, 100, ttl, 100, ttl,
+                    mock(CacheInvalidationMessaging.class), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        SearchService searchService() {
+            return mock(SearchService.class);
+        }
+    }
+}
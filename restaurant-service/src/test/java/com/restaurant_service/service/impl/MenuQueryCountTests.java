@@ -0,0 +1,137 @@
+package com.restaurant_service.service.impl;
+
+import com.restaurant_service.cache.CacheInvalidationMessaging;
+import com.restaurant_service.cache.RestaurantCaches;
+import com.restaurant_service.dto.response.MenuResponseDTO;
+import com.restaurant_service.mapper.MenuMapperImpl;
+import com.restaurant_service.mapper.RestaurantMapperImpl;
+import com.restaurant_service.model.Menu;
+import com.restaurant_service.model.Restaurant;
+import com.restaurant_service.repository.MenuRepository;
+import com.restaurant_service.repository.RestaurantRepository;
+import com.restaurant_service.service.SearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Counts the SQL statements behind the menu listing endpoints. Runs without a surrounding transaction, so
+ * mapping a lazily loaded restaurant would fail here rather than quietly issue a select per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({MenuServiceImpl.class, MenuMapperImpl.class, RestaurantMapperImpl.class, MenuQueryCountTests.Caches.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuQueryCountTests {
+
+    private static final int RESTAURANTS = 3;
+    private static final int MENUS_PER_RESTAURANT = 40;
+
+    @Autowired
+    private MenuServiceImpl menuService;
+    @Autowired
+    private MenuRepository menuRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private RestaurantCaches caches;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long firstRestaurantId;
+
+    @BeforeEach
+    void setUp() {
+        menuRepository.deleteAllInBatch();
+        restaurantRepository.deleteAllInBatch();
+        caches.menuPages().invalidateIf(key -> true);
+
+        for (int r = 0; r < RESTAURANTS; r++) {
+            Restaurant restaurant = restaurantRepository.save(Restaurant.builder()
+                    .name("Restaurant " + r)
+                    .location("Kigali")
+                    .type("Grill")
+                    .ownerId("owner-" + r)
+                    .build());
+            if (r == 0) {
+                firstRestaurantId = restaurant.getId();
+            }
+            for (int m = 0; m < MENUS_PER_RESTAURANT; m++) {
+                menuRepository.save(Menu.builder()
+                        .name("Dish " + r + "-" + m)
+                        .price(5 + m)
+                        .restaurant(restaurant)
+                        .build());
+            }
+        }
+    }
+
+    @Test
+    void restaurantMenusTakeOneSelectAndOneCountAtAnyPageSize() {
+        for (int size : new int[]{5, 20, 35}) {
+            Page<MenuResponseDTO> page = countStatements(2, () ->
+                    menuService.getRestaurantMenus(firstRestaurantId, PageRequest.of(0, size, Sort.by("name"))));
+
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(page.getContent()).allSatisfy(menu ->
+                    assertThat(menu.getRestaurantSummaryDto().getName()).isEqualTo("Restaurant 0"));
+        }
+    }
+
+    @Test
+    void allMenusTakeOneSelectAndOneCountAcrossRestaurants() {
+        for (int size : new int[]{10, 50, 100}) {
+            Page<MenuResponseDTO> page = countStatements(2, () ->
+                    menuService.getAllMenus(PageRequest.of(0, size, Sort.by("name"))));
+
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(page.getContent())
+                    .extracting(menu -> menu.getRestaurantSummaryDto().getName())
+                    .doesNotContainNull();
+        }
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued")
+                .isEqualTo(expected);
+        return result;
+    }
+
+    @TestConfiguration
+    static class Caches {
+
+        @Bean
+        RestaurantCaches restaurantCaches() {
+            Duration ttl = Duration.ofMinutes(5);
+            return new RestaurantCaches(100, ttl, 100, ttl, 100, ttl,
+                    mock(CacheInvalidationMessaging.class), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        SearchService searchService() {
+            return mock(SearchService.class);
+        }
+    }
+}
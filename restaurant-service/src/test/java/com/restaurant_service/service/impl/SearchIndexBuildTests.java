@@ -0,0 +1,88 @@
+package com.restaurant_service.service.impl;
+
+import com.restaurant_service.dto.response.RestaurantSearchResultDTO;
+import com.restaurant_service.model.Menu;
+import com.restaurant_service.model.Restaurant;
+import com.restaurant_service.repository.MenuRepository;
+import com.restaurant_service.repository.RestaurantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Commits writes while the index build is reading its snapshot. The snapshot predates them, so the build
+ * only ends up current if it replays them onto the fresh index.
+ */
+class SearchIndexBuildTests {
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final MenuRepository menuRepository = mock(MenuRepository.class);
+    private final SearchServiceImpl searchService =
+            new SearchServiceImpl(restaurantRepository, menuRepository, mock(PlatformTransactionManager.class),
+                    new SimpleMeterRegistry());
+
+    @Test
+    void writesCommittedDuringBuildSurviveTheSwap() {
+        Restaurant grill = restaurant(1L, "Old Grill");
+        Restaurant closed = restaurant(2L, "Closed Cafe");
+        Restaurant opened = restaurant(3L, "Fresh Sushi");
+        Menu brochette = Menu.builder().id(10L).name("Brochette").restaurant(grill).build();
+
+        when(menuRepository.findAll()).thenAnswer(invocation -> {
+            // Stands in for writes on other threads that commit after the snapshot was read
+            searchService.restaurantSaved(restaurant(1L, "Lakeside Grill"));
+            searchService.restaurantDeleted(2L);
+            searchService.restaurantSaved(opened);
+            searchService.menuSaved(Menu.builder().id(30L).name("Maki").restaurant(opened).build());
+            return List.of(brochette);
+        });
+        when(restaurantRepository.findAll()).thenReturn(List.of(grill, closed));
+
+        searchService.buildIndex();
+
+        assertThat(names("lakeside")).containsExactly("Lakeside Grill");
+        assertThat(names("old")).isEmpty();
+        assertThat(names("closed")).isEmpty();
+        assertThat(names("maki")).containsExactly("Fresh Sushi");
+        assertThat(searchService.search("brochette", 10))
+                .singleElement()
+                .satisfies(hit -> assertThat(hit.getMatchingMenus()).containsExactly("Brochette"));
+    }
+
+    @Test
+    void writesAfterBuildGoToTheSwappedIndex() {
+        when(menuRepository.findAll()).thenReturn(List.of());
+        when(restaurantRepository.findAll()).thenReturn(List.of(restaurant(1L, "Old Grill")));
+        searchService.buildIndex();
+
+        searchService.restaurantSaved(restaurant(1L, "Lakeside Grill"));
+
+        assertThat(names("lakeside")).containsExactly("Lakeside Grill");
+        assertThat(names("old")).isEmpty();
+    }
+
+    @Test
+    void unreadableDatabaseLeavesAnIndexKeptCurrentByWrites() {
+        when(menuRepository.findAll()).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        searchService.buildIndex();
+        searchService.restaurantSaved(restaurant(1L, "Lakeside Grill"));
+
+        assertThat(names("lakeside")).containsExactly("Lakeside Grill");
+    }
+
+    private List<String> names(String query) {
+        return searchService.search(query, 10).stream().map(RestaurantSearchResultDTO::getName).toList();
+    }
+
+    private static Restaurant restaurant(Long id, String name) {
+        return Restaurant.builder().id(id).name(name).type("Grill").location("Kigali").ownerId("owner").build();
+    }
+}
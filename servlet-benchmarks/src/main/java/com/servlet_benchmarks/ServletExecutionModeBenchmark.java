@@ -0,0 +1,195 @@
+package com.servlet_benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of a servlet service (auth-service, restaurant-service, order-service) with and
+ * without {@code spring.threads.virtual.enabled}, under the same Hikari pool size.
+ * <p>
+ * Each mode starts a Spring Boot servlet application on embedded Tomcat with Boot's own web server, Hikari
+ * and {@code JdbcTemplate} auto-configuration, as the services use them, and drives it over HTTP. A request
+ * runs a query that holds a pooled connection for {@code queryMillis} inside the database (an in-memory H2
+ * whose driver synchronizes internally, so virtual threads can pin on it) and then blocks
+ * {@code downstreamMillis} without a connection, standing in for a call to another service. Tomcat uses its
+ * default 200 threads in the platform mode.
+ * <p>
+ * JMH threads are the clients; the {@code p0.99} row of the sample-time result is the request p99. Client
+ * count is overridable with {@code -t}. Run with {@code java -jar target/benchmarks.jar
+ * ServletExecutionModeBenchmark -prof com.servlet_benchmarks.VirtualThreadPinningProfiler}; the profiler
+ * adds the number of virtual thread pinning events per iteration as {@code ·pinned}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(ServletExecutionModeBenchmark.CLIENTS)
+@Fork(1)
+public class ServletExecutionModeBenchmark {
+
+    static final int CLIENTS = 400;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    /**
+     * Hikari's default {@code maximum-pool-size}, which the services keep.
+     */
+    @Param("10")
+    private int jdbcPoolSize;
+
+    @Param("2")
+    private long queryMillis;
+
+    @Param("50")
+    private long downstreamMillis;
+
+    private ConfigurableApplicationContext service;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new SpringApplicationBuilder(ServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.accept-count=" + CLIENTS,
+                        "spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                        "spring.datasource.url=jdbc:h2:mem:servlet-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + jdbcPoolSize,
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "spring.cloud.config.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "benchmark.query-millis=" + queryMillis,
+                        "benchmark.downstream-millis=" + downstreamMillis)
+                .run();
+        int port = ((WebServerApplicationContext) service).getWebServer().getPort();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders/1")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+        client.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Service answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    /**
+     * Called from SQL through the {@code SLEEP_MILLIS} alias, on the thread that runs the query.
+     */
+    public static int sleepMillis(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return 1;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            DataSourceAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class
+    })
+    static class ServiceApplication {
+
+        @Bean
+        ApplicationRunner sleepFunction(JdbcTemplate jdbcTemplate) {
+            return args -> jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SLEEP_MILLIS FOR \""
+                    + ServletExecutionModeBenchmark.class.getName() + ".sleepMillis\"");
+        }
+
+        @Bean
+        OrderController orderController(JdbcTemplate jdbcTemplate) {
+            return new OrderController(jdbcTemplate);
+        }
+    }
+
+    @RestController
+    static class OrderController {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        @Value("${benchmark.query-millis}")
+        private long queryMillis;
+
+        @Value("${benchmark.downstream-millis}")
+        private long downstreamMillis;
+
+        OrderController(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @GetMapping("/orders/{id}")
+        public String order(@PathVariable("id") long id) throws InterruptedException {
+            Integer found = jdbcTemplate.queryForObject("SELECT SLEEP_MILLIS(?)", Integer.class, queryMillis);
+            Thread.sleep(downstreamMillis);
+            return "{\"id\":" + id + ",\"found\":" + found + "}";
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ServletExecutionModeBenchmark.class.getSimpleName())
+                .addProfiler(VirtualThreadPinningProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.servlet_benchmarks;
+
+import jdk.jfr.consumer.RecordingStream;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts JFR {@code jdk.VirtualThreadPinned} events in the benchmark's JVM during each iteration and reports
+ * them as the secondary result {@code ·pinned}. Enable with
+ * {@code -prof com.servlet_benchmarks.VirtualThreadPinningProfiler}.
+ */
+public class VirtualThreadPinningProfiler implements InternalProfiler {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private final AtomicLong pinned = new AtomicLong();
+    private RecordingStream events;
+
+    @Override
+    public String getDescription() {
+        return "Virtual thread pinning events (JFR " + EVENT + ")";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        pinned.set(0);
+        events = new RecordingStream();
+        events.enable(EVENT).withThreshold(Duration.ZERO);
+        events.onEvent(EVENT, event -> pinned.incrementAndGet());
+        events.startAsync();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams, IterationResult result) {
+        // stop() returns once every event recorded so far has been delivered
+        events.stop();
+        events.close();
+        return List.of(new ScalarResult("·pinned", pinned.get(), "events", AggregationPolicy.SUM));
+    }
+}